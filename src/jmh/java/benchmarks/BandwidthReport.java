@@ -0,0 +1,117 @@
+package benchmarks;
+
+import application.Game;
+import application.Grid;
+import application.MazeGenerator;
+import model.PositionCodec;
+import model.World;
+import physics.DeadReckoning;
+import physics.Simulation;
+
+import org.jspace.Tuple;
+import org.jspace.io.json.jSonUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Bytes sent for tractor positions in rooms of 4, 8 and 16 players. Every tractor drives through the maze for a minute,
+// changing keys every now and then, and sends its position
+// - the old way: a tuple of boxed fields every FIXED_INTERVAL ms while moving, and when its keys change, put once for
+//   every opponent
+// - the new way: a PositionCodec payload when DeadReckoning says so, at a round trip of ROUND_TRIP ms, put once as
+//   ("position", playerID, keyFrame, number, update, round) and queried by every opponent
+// "put" is what the players send to the game space, "read" what the game space sends to the players, both ways every
+// opponent reads every update once.
+// The state is measured raw, as the fields of the old tuple take in memory, against the codec payload. A tuple is
+// measured in jSpace's JSON encoding, which is what a RemoteSpace sends. The message around it is the same both ways
+// and left out.
+//
+// usage: mvn -P benchmark package && java -cp target/benchmarks.jar benchmarks.BandwidthReport
+public class BandwidthReport {
+    private static final int SECONDS = 60;
+    private static final int TICK_RATE = Simulation.DEFAULT_TICK_RATE;
+    private static final int FIXED_INTERVAL = 50; // ms
+    private static final int ROUND_TRIP = 100; // ms
+    private static final int STATE_BYTES = 3 * Double.BYTES + Integer.BYTES + Long.BYTES; // x, y, rotation, keys, time
+
+    public static void main(String[] args) {
+        System.out.printf("%7s | %9s %9s | %7s %7s | %7s %7s | %9s %9s %6s | %9s %9s %6s%n", "players", "old upd/s", "new upd/s",
+                "state B", "codec B", "old B", "new B", "put kB/s", "put kB/s", "ratio", "read kB/s", "read kB/s", "ratio");
+
+        for (int players : new int[]{4, 8, 16})
+            report(players);
+    }
+
+    private static void report(int players) {
+        Random random = new Random(42);
+        Grid grid = new Grid(450, 450, MazeGenerator.generate(42, Grid.DEFAULT_ROWS, Grid.DEFAULT_COLS, Grid.DEFAULT_WALLS_TO_REMOVE));
+        List<Integer> playerIDs = new ArrayList<>();
+
+        for (int playerID = 0; playerID < players; playerID++)
+            playerIDs.add(playerID);
+
+        World world = new World(playerIDs);
+        Simulation simulation = new Simulation(world, grid, TICK_RATE);
+        PositionCodec[] encoders = new PositionCodec[players];
+        DeadReckoning[] deadReckonings = new DeadReckoning[players];
+        int[] keys = new int[players], sentKeys = new int[players];
+        long[] lastSent = new long[players];
+
+        for (int slot = 0; slot < players; slot++) {
+            world.setTractor(slot, 50 * random.nextInt(Grid.DEFAULT_COLS) + 25 - Game.PLAYER_WIDTH / 2,
+                    50 * random.nextInt(Grid.DEFAULT_ROWS) + 25 - Game.PLAYER_HEIGHT / 2, 90 * random.nextInt(4));
+            encoders[slot] = new PositionCodec();
+            deadReckonings[slot] = new DeadReckoning(grid, TICK_RATE);
+            lastSent[slot] = -FIXED_INTERVAL;
+        }
+
+        int roundTrip = ROUND_TRIP * TICK_RATE / 1000; // ticks
+        long oldUpdates = 0, newUpdates = 0, tupleBytes = 0, codecTupleBytes = 0, payloadBytes = 0;
+
+        for (int tick = 0; tick < SECONDS * TICK_RATE; tick++) {
+            long time = tick * 1000L / TICK_RATE;
+
+            for (int slot = 0; slot < players; slot++) {
+                // hold keys for about a second, mostly driving forwards, and back up turning when stuck at a wall
+                if (random.nextInt(TICK_RATE) == 0)
+                    keys[slot] = random.nextInt(4) == 0 ? 0 : 1 | (random.nextBoolean() ? 1 << (2 + random.nextInt(2)) : 0);
+
+                world.keys[slot] = keys[slot];
+                boolean moved = simulation.applyKeys(slot, keys[slot]);
+
+                if (!moved && keys[slot] != 0)
+                    keys[slot] = 1 << 1 | 1 << (2 + random.nextInt(2));
+
+                if (moved && time - lastSent[slot] > FIXED_INTERVAL || world.keys[slot] != sentKeys[slot]) {
+                    lastSent[slot] = time;
+                    sentKeys[slot] = world.keys[slot];
+                    oldUpdates++;
+                    tupleBytes += size(new Object[]{"player position", slot, 0, world.tractorX[slot], world.tractorY[slot],
+                            world.tractorRotation[slot], world.keys[slot], time});
+                }
+
+                if (deadReckonings[slot].tick(world, slot, roundTrip)) {
+                    deadReckonings[slot].sent(world, slot);
+                    byte[] update = encoders[slot].encode(time, world.tractorX[slot], world.tractorY[slot], world.tractorRotation[slot], world.keys[slot]);
+                    newUpdates++;
+                    payloadBytes += update.length;
+                    int number = (int) (newUpdates % 1000);
+                    codecTupleBytes += size(new Object[]{"position", slot, PositionCodec.keyFrame(number), number, update, 1});
+                }
+            }
+        }
+
+        double oldKBs = tupleBytes * (players - 1) / 1000.0 / SECONDS; // one tuple per opponent, put and read once each
+        double newPutKBs = codecTupleBytes / 1000.0 / SECONDS;
+        double newReadKBs = codecTupleBytes * (players - 1) / 1000.0 / SECONDS;
+        System.out.printf("%7d | %9.1f %9.1f | %7d %7.2f | %7.1f %7.1f | %9.2f %9.2f %6.1f | %9.2f %9.2f %6.1f%n", players,
+                (double) oldUpdates / SECONDS, (double) newUpdates / SECONDS, STATE_BYTES, (double) payloadBytes / newUpdates,
+                (double) tupleBytes / oldUpdates, (double) codecTupleBytes / newUpdates,
+                oldKBs, newPutKBs, oldKBs / newPutKBs, oldKBs, newReadKBs, oldKBs / newReadKBs);
+    }
+
+    private static int size(Object[] fields) {
+        return jSonUtils.getInstance().toByte(new Tuple(fields)).length;
+    }
+}
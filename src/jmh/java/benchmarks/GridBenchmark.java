@@ -0,0 +1,93 @@
+package benchmarks;
+
+import application.Game;
+import application.Grid;
+import application.MazeGenerator;
+import datatypes.MazeWalls;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import physics.Simulation;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Maze construction and wall collision tests, on a board with the same cell size as the game (450px for 9x9)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GridBenchmark {
+    private static final double CELL_SIZE = 50;
+    private static final int QUERIES = 1024;
+
+    @Param({"9", "32", "128"})
+    public int size;
+
+    private Grid grid;
+    private int[] cells;
+    private double[] tractors; // {center x, center y, rotation} per query
+    private double[] shots; // {center x, center y} per query
+    private int query;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        grid = newGrid(42);
+        cells = new int[4 * QUERIES];
+        tractors = new double[3 * QUERIES];
+        shots = new double[2 * QUERIES];
+
+        for (int i = 0; i < QUERIES; i++) {
+            int row = random.nextInt(size - 1), col = random.nextInt(size - 1);
+            boolean below = random.nextBoolean();
+            cells[4 * i] = row;
+            cells[4 * i + 1] = col;
+            cells[4 * i + 2] = below ? row + 1 : row;
+            cells[4 * i + 3] = below ? col : col + 1;
+
+            tractors[3 * i] = random.nextDouble() * size * CELL_SIZE;
+            tractors[3 * i + 1] = random.nextDouble() * size * CELL_SIZE;
+            tractors[3 * i + 2] = random.nextInt(360);
+
+            shots[2 * i] = random.nextDouble() * size * CELL_SIZE;
+            shots[2 * i + 1] = random.nextDouble() * size * CELL_SIZE;
+        }
+    }
+
+    private Grid newGrid(long seed) {
+        MazeWalls maze = MazeGenerator.generate(seed, size, size, Grid.DEFAULT_WALLS_TO_REMOVE);
+        return new Grid(size * CELL_SIZE, size * CELL_SIZE, maze);
+    }
+
+    private int nextQuery() {
+        query = (query + 1) & (QUERIES - 1);
+        return query;
+    }
+
+    @Benchmark
+    public Grid construction() {
+        return newGrid(query++);
+    }
+
+    @Benchmark
+    public boolean notConnected() {
+        int i = 4 * nextQuery();
+        return grid.notConnected(cells[i], cells[i + 1], cells[i + 2], cells[i + 3]);
+    }
+
+    // the tests Simulation runs every tick, for a tractor and for a shot bouncing off the walls
+    @Benchmark
+    public boolean wallCollisionTractor() {
+        int i = 3 * nextQuery();
+        return grid.isBoxWallCollision(tractors[i], tractors[i + 1], Game.PLAYER_WIDTH / 2, Game.PLAYER_HEIGHT / 2, tractors[i + 2]);
+    }
+
+    @Benchmark
+    public void wallCollisionShot(Blackhole blackhole) {
+        int i = 2 * nextQuery();
+        blackhole.consume(grid.isCircleWallCollisionHorizontal(shots[i], shots[i + 1], Simulation.SHOT_RADIUS));
+        blackhole.consume(grid.isCircleWallCollisionVertical(shots[i], shots[i + 1], Simulation.SHOT_RADIUS));
+    }
+}
@@ -0,0 +1,44 @@
+package benchmarks;
+
+import application.Grid;
+import application.MazeGenerator;
+import datatypes.MazeWalls;
+
+// Prints maze generation time and memory per maze size
+//
+// usage: mvn -P benchmark package && java -cp target/benchmarks.jar benchmarks.MazeReport [sizes...]
+public class MazeReport {
+    private static final int[] DEFAULT_SIZES = {9, 32, 64, 128, 256, 512};
+    private static final int WARMUP_RUNS = 5, RUNS = 10;
+
+    public static void main(String[] args) {
+        int[] sizes = DEFAULT_SIZES;
+
+        if (args.length > 0) {
+            sizes = new int[args.length];
+            for (int i = 0; i < args.length; i++)
+                sizes[i] = Integer.parseInt(args[i]);
+        }
+
+        System.out.printf("%-10s %12s %14s %16s%n", "size", "time (ms)", "maze (bytes)", "working (bytes)");
+
+        for (int size : sizes) {
+            int wallsToRemove = Math.max(Grid.DEFAULT_WALLS_TO_REMOVE, size * size / 16);
+
+            for (int i = 0; i < WARMUP_RUNS; i++)
+                MazeGenerator.generate(i, size, size, wallsToRemove);
+
+            MazeWalls maze = null;
+            long start = System.nanoTime();
+            for (int i = 0; i < RUNS; i++)
+                maze = MazeGenerator.generate(i, size, size, wallsToRemove);
+            double millis = (System.nanoTime() - start) / 1e6 / RUNS;
+
+            // the packed walls are what is kept, the visited flags, the stack and the wall list only live during generation
+            long mazeBytes = 8L * maze.getWords().length;
+            long workingBytes = (long) size * size + 4L * size * size + 4L * maze.numWalls();
+
+            System.out.printf("%-10s %12.3f %14d %16d%n", size + "x" + size, millis, mazeBytes, workingBytes);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package benchmarks;
+
+import application.Game;
+import application.Grid;
+import application.MazeGenerator;
+import controllers.MovementController;
+import org.jspace.SequentialSpace;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// One movement step of a tractor, including the wall collision test and undo.
+// The moved tractor is not the player's own, so no position is broadcast.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MovementBenchmark {
+    private static final int OPPONENT_ID = 1;
+    private MovementController movementController;
+
+    @Setup
+    public void setup() {
+        Grid grid = new Grid(450, 450, MazeGenerator.generate(42, Grid.DEFAULT_ROWS, Grid.DEFAULT_COLS, Grid.DEFAULT_WALLS_TO_REMOVE));
+        Game game = new Game(new SequentialSpace(), Map.of(0, "me", OPPONENT_ID, "opponent"), 0, grid);
+        movementController = new MovementController(game);
+
+        // in the middle of the first cell, so it bumps into walls every now and then
+        game.world.setTractor(game.world.slot(OPPONENT_ID), 25 - Game.PLAYER_WIDTH / 2, 25 - Game.PLAYER_HEIGHT / 2, 0);
+    }
+
+    @Benchmark
+    public void move() {
+        movementController.move(OPPONENT_ID, "forwards");
+        movementController.move(OPPONENT_ID, "backwards");
+    }
+
+    @Benchmark
+    public void rotate() {
+        movementController.rotate(OPPONENT_ID, "clockwise");
+    }
+}
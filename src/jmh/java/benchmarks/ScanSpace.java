@@ -0,0 +1,101 @@
+package benchmarks;
+
+import org.jspace.Space;
+import org.jspace.TemplateField;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+
+// A space working like jSpace's SequentialSpace: one list in put order, scanned from the oldest tuple for every
+// operation, and every blocked operation scans again on each put. For timing that baseline where the jSpace jar is not
+// at hand, see SpaceBenchmark
+public class ScanSpace implements Space {
+    private final LinkedList<Object[]> tuples = new LinkedList<>();
+
+    @Override
+    public synchronized int size() {
+        return tuples.size();
+    }
+
+    @Override
+    public synchronized boolean put(Object... fields) {
+        tuples.add(fields);
+        notifyAll();
+        return true;
+    }
+
+    @Override
+    public synchronized Object[] get(TemplateField... fields) throws InterruptedException {
+        Object[] tuple;
+        while ((tuple = find(fields, true)) == null)
+            wait();
+        return tuple;
+    }
+
+    @Override
+    public synchronized Object[] getp(TemplateField... fields) {
+        return find(fields, true);
+    }
+
+    @Override
+    public synchronized List<Object[]> getAll(TemplateField... fields) {
+        List<Object[]> found = new ArrayList<>();
+        for (Iterator<Object[]> iterator = tuples.iterator(); iterator.hasNext(); ) {
+            Object[] tuple = iterator.next();
+            if (matches(fields, tuple)) {
+                iterator.remove();
+                found.add(tuple);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public synchronized Object[] query(TemplateField... fields) throws InterruptedException {
+        Object[] tuple;
+        while ((tuple = find(fields, false)) == null)
+            wait();
+        return tuple;
+    }
+
+    @Override
+    public synchronized Object[] queryp(TemplateField... fields) {
+        return find(fields, false);
+    }
+
+    @Override
+    public synchronized List<Object[]> queryAll(TemplateField... fields) {
+        List<Object[]> found = new ArrayList<>();
+        for (Object[] tuple : tuples) {
+            if (matches(fields, tuple))
+                found.add(tuple);
+        }
+        return found;
+    }
+
+    private Object[] find(TemplateField[] template, boolean remove) {
+        for (Iterator<Object[]> iterator = tuples.iterator(); iterator.hasNext(); ) {
+            Object[] tuple = iterator.next();
+            if (matches(template, tuple)) {
+                if (remove)
+                    iterator.remove();
+                return tuple;
+            }
+        }
+        return null;
+    }
+
+    private static boolean matches(TemplateField[] template, Object[] fields) {
+        if (template.length != fields.length)
+            return false;
+
+        for (int i = 0; i < fields.length; i++) {
+            if (!template[i].match(fields[i]))
+                return false;
+        }
+
+        return true;
+    }
+}
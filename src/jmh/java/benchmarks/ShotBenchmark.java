@@ -0,0 +1,64 @@
+package benchmarks;
+
+import application.Game;
+import application.Grid;
+import application.MazeGenerator;
+import controllers.ShotController;
+import model.World;
+import org.jspace.SequentialSpace;
+import org.openjdk.jmh.annotations.*;
+import physics.Simulation;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// One tick of shot physics: every shot is moved, bounced off walls and tested against every tractor, as on the room host.
+// The tractors are placed outside the board so the hit tests run without ending the round.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShotBenchmark {
+    @Param({"1", "6", "24"})
+    public int shots;
+
+    @Param({"2", "4"})
+    public int tractors;
+
+    private ShotController shotController;
+    private World world;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        Grid grid = new Grid(450, 450, MazeGenerator.generate(42, Grid.DEFAULT_ROWS, Grid.DEFAULT_COLS, Grid.DEFAULT_WALLS_TO_REMOVE));
+        Map<Integer, String> players = new HashMap<>();
+
+        for (int playerID = 0; playerID < tractors; playerID++)
+            players.put(playerID, "player " + playerID);
+
+        Game game = new Game(new SequentialSpace(), players, 0, grid);
+        world = game.world;
+
+        for (int slot = 0; slot < world.numTractors; slot++)
+            world.setTractor(slot, -100, -100, 0);
+
+        shotController = new ShotController(game);
+
+        for (int shotID = 0; shotID < shots; shotID++) {
+            double x = 25 + 50 * random.nextInt(Grid.DEFAULT_COLS);
+            double y = 25 + 50 * random.nextInt(Grid.DEFAULT_ROWS);
+            world.addShot(shotID, 0, x, y, random.nextInt(360), Simulation.SHOT_SPEED, Integer.MAX_VALUE);
+        }
+    }
+
+    @Benchmark
+    public World updateShots() {
+        shotController.updateShots();
+        return world;
+    }
+}
@@ -0,0 +1,72 @@
+package benchmarks;
+
+import datatypes.IndexedSpace;
+import model.PositionCodec;
+import org.jspace.ActualField;
+import org.jspace.FormalField;
+import org.jspace.SequentialSpace;
+import org.jspace.Space;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// The game's hot tuple patterns on the room host's game space, for one player of a 16 player room, with other tuples
+// waiting to be read: half of them position updates not yet superseded, half of them shots for the other players.
+// - kill: put and get of a kill, the recipient is field 1
+// - shot: put and get of a new shot, the recipient is field 2
+// - position: query of an opponent's position update by number, as MovementListener reads them
+// "sequential" is jSpace's SequentialSpace, "scan" a copy of its algorithm for when the jSpace jar is not at hand, see
+// ScanSpace, and "indexed" is IndexedSpace.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpaceBenchmark {
+    private static final int PLAYERS = 16, PLAYER_ID = 3, ROUND = 1;
+
+    @Param({"sequential", "scan", "indexed"})
+    public String space;
+
+    @Param({"10", "100", "1000"})
+    public int tuples;
+
+    private Space gameSpace;
+    private int updates; // position updates put per player
+    private int query;
+
+    @Setup
+    public void setup() throws InterruptedException {
+        gameSpace = space.equals("indexed") ? new IndexedSpace() : space.equals("scan") ? new ScanSpace() : new SequentialSpace();
+        updates = Math.max(1, tuples / 2 / PLAYERS);
+
+        for (int number = 0; number < updates; number++)
+            for (int playerID = 0; playerID < PLAYERS; playerID++)
+                gameSpace.put("position", playerID, PositionCodec.keyFrame(number), number, new byte[5], ROUND);
+
+        for (int i = 0; i < tuples / 2; i++)
+            gameSpace.put("new shot", i % PLAYERS, (PLAYER_ID + 1 + i % (PLAYERS - 1)) % PLAYERS, i, 1.0, 2.0, 90.0, ROUND);
+    }
+
+    @Benchmark
+    public Object[] kill() throws InterruptedException {
+        gameSpace.put("kill", PLAYER_ID, 1, 2, ROUND);
+        return gameSpace.get(new ActualField("kill"), new ActualField(PLAYER_ID), new FormalField(Integer.class), new FormalField(Integer.class), new ActualField(ROUND));
+    }
+
+    @Benchmark
+    public Object[] shot() throws InterruptedException {
+        gameSpace.put("new shot", 1, PLAYER_ID, 2, 1.0, 2.0, 90.0, ROUND);
+        return gameSpace.get(new ActualField("new shot"), new FormalField(Integer.class), new ActualField(PLAYER_ID), new FormalField(Integer.class),
+                new FormalField(Double.class), new FormalField(Double.class), new FormalField(Double.class), new ActualField(ROUND));
+    }
+
+    // the newest update of the next opponent, the one a listener following it waits for
+    @Benchmark
+    public Object[] position() throws InterruptedException {
+        query = (query + 1) % PLAYERS;
+        return gameSpace.query(new ActualField("position"), new ActualField(query), new ActualField(PositionCodec.keyFrame(updates - 1)), new ActualField(updates - 1),
+                new FormalField(byte[].class), new ActualField(ROUND));
+    }
+}
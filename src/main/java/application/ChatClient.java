@@ -1,39 +1,37 @@
 package application;
 
-import datatypes.ArrayListInt;
+import listeners.ListenerRuntime;
 import org.jspace.*;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.PriorityQueue;
-import java.util.Queue;
+import java.util.function.Consumer;
 
+// The chat is a log in the room space: ("chat message", seq, text) tuples numbered from 0, with ("chat seq", next)
+// holding the next sequence number. Every client has a ("chat cursor", player, seq) tuple with the next message it
+// will read, and the room's ChatTrimmer removes messages all cursors have passed. See Receiver.
+// Received messages are handed to onMessage on the receiver's thread, as soon as they arrive.
 public class ChatClient {
     private RemoteSpace chat;
-    private Space messages;
-    private List<Integer> players;
-    private QueueSpace playerQueue = new QueueSpace();
-    private Receiver receiver;
-    private Thread thread;
+    private ListenerRuntime listeners;
     private String name;
     int player;
 
-    public ChatClient(String uri, int player, String name, ArrayListInt players) {
+    public ChatClient(String uri, int player, String name, Consumer<String> onMessage) {
         try {
             this.player = player;
             this.name = name;
-            this.players = players;
             if (uri == null) {
                 uri = "tcp://127.0.0.1:9001/room?keep";
             }
             chat = new RemoteSpace(uri);
-            messages = new QueueSpace();
-            receiver = new Receiver(chat, messages, player, players);
-            thread = new Thread(receiver);
-            thread.start();
-            chat.get(new ActualField("players"), new FormalField(Integer.class));
-            chat.put("players", player);
+
+            // start reading at the next message, no message can be sent while the sequence number is taken
+            int cursor = (int) chat.get(new ActualField("chat seq"), new FormalField(Integer.class))[1];
+            chat.put("chat cursor", player, cursor);
+            chat.put("chat seq", cursor);
+
+            listeners = new ListenerRuntime("chat " + player);
+            listeners.start(new Receiver(chat, onMessage, player, cursor), "receiver");
         } catch (IOException e) {
             throw new RuntimeException(e);
         } catch (InterruptedException e) {
@@ -43,31 +41,19 @@ public class ChatClient {
 
     public void sendMessage(String message) {
         try {
-            chat.put("message", name + ": " + message);
-            players = (ArrayListInt)chat.query(new ActualField("playerIdList"), new FormalField(ArrayListInt.class))[1];
-            chat.put("turn", players.get(0));
+            int seq = (int) chat.get(new ActualField("chat seq"), new FormalField(Integer.class))[1];
+            chat.put("chat message", seq, name + ": " + message);
+            chat.put("chat seq", seq + 1);
         } catch (Exception ignored) {
         }
     }
 
-    public List<String> receiveMessages() throws InterruptedException {
-        List<String> strings = new ArrayList<>();
-        for (Object[] message : messages.getAll(new FormalField(String.class))) {
-            strings.add((String) message[0]);
-        }
-        return strings;
-    }
-
     public String getName() {
         return name;
     }
 
     public void closeClient() throws InterruptedException {
-        players = (ArrayListInt)chat.get(new ActualField("playerIdList"), new FormalField(ArrayListInt.class))[1];
-        players.remove((Object)player);
-        chat.put("playerIdList", players);
-        receiver.stop();
+        listeners.stop();
+        chat.getp(new ActualField("chat cursor"), new ActualField(player), new FormalField(Integer.class));
     }
 }
-
-
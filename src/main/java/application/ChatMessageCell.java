@@ -0,0 +1,55 @@
+package application;
+
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.layout.HBox;
+import javafx.scene.text.TextAlignment;
+
+// A chat message, own messages to the right and others to the left on a grey background.
+// The ListView only creates cells for the visible rows and reuses them while scrolling
+public class ChatMessageCell extends ListCell<String> {
+    private final String ownName;
+    private final HBox messageBox = new HBox();
+    private final Label textLabel = new Label();
+
+    public ChatMessageCell(String ownName) {
+        this.ownName = ownName;
+
+        messageBox.setPrefWidth(175);
+        textLabel.setPrefWidth(175);
+        textLabel.setWrapText(true);
+        textLabel.setPadding(new Insets(0, 5, 0, 0));
+        messageBox.getChildren().add(textLabel);
+    }
+
+    @Override
+    protected void updateItem(String item, boolean empty) {
+        super.updateItem(item, empty);
+
+        if (empty || item == null) {
+            setGraphic(null);
+            setContentDisplay(ContentDisplay.TEXT_ONLY);
+            return;
+        }
+
+        textLabel.setText(item);
+
+        if (!item.startsWith(ownName + ":")) {
+            messageBox.setStyle("-fx-background-color:#d7d7d7");
+            messageBox.setAlignment(Pos.CENTER_LEFT);
+            textLabel.setTextAlignment(TextAlignment.LEFT);
+            textLabel.setAlignment(Pos.CENTER_LEFT);
+        } else {
+            messageBox.setStyle(null);
+            messageBox.setAlignment(Pos.CENTER_RIGHT);
+            textLabel.setTextAlignment(TextAlignment.RIGHT);
+            textLabel.setAlignment(Pos.CENTER_RIGHT);
+        }
+
+        setGraphic(messageBox);
+        setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+    }
+}
@@ -0,0 +1,47 @@
+package application;
+
+import org.jspace.ActualField;
+import org.jspace.FormalField;
+import org.jspace.Space;
+
+import java.util.List;
+
+// Removes the chat messages every client has read, see ChatClient. It runs next to the room space on whoever hosts the
+// room, so the log is trimmed for as long as the room exists, whoever has left it. It reads the log like a Receiver and
+// every CURSOR_INTERVAL messages removes those before the oldest cursor.
+public class ChatTrimmer implements Runnable {
+    private Space chat;
+    private int next; // sequence number of the next message to read
+    private int trimmed; // messages before this have been removed
+
+    public ChatTrimmer(Space chat) {
+        this.chat = chat;
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                chat.query(new ActualField("chat message"), new ActualField(next), new FormalField(String.class));
+                next++;
+
+                if (next % Receiver.CURSOR_INTERVAL == 0)
+                    trim();
+            }
+        } catch (InterruptedException ignored) {
+            // stopped with the room, see EmptyRoomListener
+        }
+    }
+
+    private void trim() throws InterruptedException {
+        int oldestCursor = next;
+        List<Object[]> cursors = chat.queryAll(new ActualField("chat cursor"), new FormalField(Integer.class), new FormalField(Integer.class));
+        for (Object[] cursor : cursors) {
+            oldestCursor = Math.min(oldestCursor, (int) cursor[2]);
+        }
+
+        for (; trimmed < oldestCursor; trimmed++) {
+            chat.getp(new ActualField("chat message"), new ActualField(trimmed), new FormalField(String.class));
+        }
+    }
+}
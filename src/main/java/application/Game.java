@@ -1,11 +1,10 @@
 package application;
 
-import broadcasters.PlayerPositionBroadcaster;
+import broadcasters.BroadcastSender;
 import controllers.GameSceneController;
 import controllers.InputController;
 import controllers.MovementController;
 import controllers.ShotController;
-import datatypes.HashSetIntArray;
 import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
@@ -17,12 +16,20 @@ import javafx.scene.paint.ImagePattern;
 import javafx.scene.shape.Rectangle;
 import javafx.stage.Stage;
 import listeners.GameEndListener;
+import listeners.InputListener;
 import listeners.KillListener;
+import listeners.ListenerRuntime;
 import listeners.MovementListener;
+import listeners.RoundTripProbe;
 import listeners.ShotListener;
+import listeners.SnapshotListener;
+import model.PositionCodec;
+import model.World;
 import org.jspace.ActualField;
 import org.jspace.FormalField;
 import org.jspace.Space;
+import physics.LagCompensation;
+import physics.Simulation;
 
 import java.io.IOException;
 import java.util.*;
@@ -30,32 +37,62 @@ import java.util.concurrent.Semaphore;
 
 public class Game {
     public static final double PLAYER_WIDTH = 20, PLAYER_HEIGHT = 15;
+    // the maze of every round, chosen by the host
+    public static final int MAZE_ROWS = Integer.getInteger("mazeRows", Grid.DEFAULT_ROWS);
+    public static final int MAZE_COLS = Integer.getInteger("mazeCols", Grid.DEFAULT_COLS);
+    public static final int MAZE_WALLS_TO_REMOVE = Integer.getInteger("mazeWallsToRemove", Grid.DEFAULT_WALLS_TO_REMOVE);
+    private static final boolean LOG_BROADCASTS = Boolean.getBoolean("logBroadcasts"); // print the broadcast sender's metrics every round
     public final int MY_PLAYER_ID;
+    // runs the game rules: the room host, unless the room is on a dedicated server, which then runs them, see server.ServerGame
+    public final boolean isHost;
     public GameSceneController gameController;
     public Scene gameScene;
     public Pane gamePane;
     public Grid grid;
     public Space gameSpace;
+    public BroadcastSender broadcastSender;
+    // the state of the round is kept in world, tractors and shots are only the nodes displaying it
+    public World world;
+    public Simulation simulation;
+    public LagCompensation lagCompensation; // used by the host only
+    public GameRenderer renderer;
+    public GameLoop gameLoop;
     public HashMap<Integer, Rectangle> tractors;
     public HashMap<Integer, Integer> playerScores;
-    public Rectangle myTractor;
     public Map<Integer, String> playersIdNameMap;
     public ShotController shotController;
     public HashMap<Integer, Shot> shots;
-    public final Object shotsLock = new Object();
     public InputController inputController;
     public static List<Color> colors = new ArrayList<>(Arrays.asList(Color.YELLOWGREEN, Color.RED, Color.GREEN, Color.BLUE));
     public String[] imageURL = new String[]{"/yellow.png", "/red.png", "/green.png", "/blue.png"};
     public boolean movementPrediction = true;
+    // chosen by the host with -Dauthoritative=true: the host simulates every tractor and shot from the players' input
+    // and sends snapshots of the world, instead of every player simulating its own tractor and shots. A dedicated server
+    // is always authoritative
+    public final boolean authoritative;
+    // chosen by the host with -DtickRate, every player simulates at the host's rate so ticks mean the same everywhere
+    public int tickRate = Integer.getInteger("tickRate", Simulation.DEFAULT_TICK_RATE);
     public MovementController movementController;
-    public Thread movementListener, shotListener, killListener;
+    public ListenerRuntime listeners; // listeners of the current round
+    public int snapshotTick = -1; // the last snapshot sent by the host, used on the broadcast sender's thread
+    private int round;
 
-    public Game(Stage stage, Space gameSpace, Map<Integer, String> playersIdNameMap, int MY_PLAYER_ID) {
+    public Game(Stage stage, Space gameSpace, Map<Integer, String> playersIdNameMap, int MY_PLAYER_ID, boolean isHost) {
         try {
             this.gameSpace = gameSpace;
             this.MY_PLAYER_ID = MY_PLAYER_ID;
+            this.isHost = isHost;
             this.playersIdNameMap = playersIdNameMap;
-            movementListener = shotListener = killListener = null;
+            broadcastSender = new BroadcastSender("broadcaster " + MY_PLAYER_ID);
+
+            if (isHost) {
+                authoritative = Boolean.getBoolean("authoritative");
+                gameSpace.put("authoritative", authoritative);
+                gameSpace.put("tick rate", tickRate);
+            } else {
+                authoritative = (boolean) gameSpace.query(new ActualField("authoritative"), new FormalField(Boolean.class))[1];
+                tickRate = (int) gameSpace.query(new ActualField("tick rate"), new FormalField(Integer.class))[1];
+            }
 
             FXMLLoader gameLoader = new FXMLLoader(getClass().getResource("/game-scene-view.fxml"));
             BorderPane scene = gameLoader.load();
@@ -69,10 +106,6 @@ public class Game {
                 playerScores.put(playerID, 0);
             }
 
-            if (GameApplication.isRoomHost) {
-                gameSpace.put("shot id", 0);
-            }
-
             gameController.movementPredictionOn.setOnMouseReleased(e -> movementPrediction = true);
             gameController.movementPredictionOff.setOnMouseReleased(e -> movementPrediction = false);
         } catch (IOException | InterruptedException e) {
@@ -80,46 +113,74 @@ public class Game {
         }
     }
 
+    // Game without a stage run by its host, e.g. for benchmarks - nothing is rendered and no listeners are started
+    public Game(Space gameSpace, Map<Integer, String> playersIdNameMap, int MY_PLAYER_ID, Grid grid) {
+        this.gameSpace = gameSpace;
+        this.MY_PLAYER_ID = MY_PLAYER_ID;
+        isHost = true;
+        this.playersIdNameMap = playersIdNameMap;
+        this.grid = grid;
+        authoritative = false;
+        broadcastSender = new BroadcastSender("broadcaster " + MY_PLAYER_ID);
+        world = new World(playersIdNameMap.keySet());
+        simulation = new Simulation(world, grid, tickRate);
+        lagCompensation = new LagCompensation(world, tickRate, world.slot(MY_PLAYER_ID), 0);
+        tractors = new HashMap<>();
+        shots = new HashMap<>();
+        playerScores = new HashMap<>();
+    }
 
-    public void setGrid(HashSetIntArray connectedSquares) {
-        grid = new Grid(gamePane, connectedSquares);
+    public void setGrid(long seed, int rows, int cols, int wallsToRemove) {
+        grid = new Grid(gamePane, seed, rows, cols, wallsToRemove);
         Platform.runLater(() -> gameController.displayGrid(grid));
     }
 
     public void spawnPlayers() {
         int index = 0;
+        world = new World(playersIdNameMap.keySet());
+        simulation = new Simulation(world, grid, tickRate);
+        lagCompensation = new LagCompensation(world, tickRate, world.slot(MY_PLAYER_ID), authoritative ? 0 : MovementController.INTERPOLATION_DELAY);
+        randomSpawn(world.slot(MY_PLAYER_ID));
 
         for (Integer playerID : playersIdNameMap.keySet()) {
-            Rectangle newTractor = (playerID == MY_PLAYER_ID ? randomSpawn() : new Rectangle(PLAYER_WIDTH, PLAYER_HEIGHT));
+            Rectangle newTractor = new Rectangle(PLAYER_WIDTH, PLAYER_HEIGHT);
             tractors.put(playerID, newTractor);
             Image img = new Image(imageURL[index++]);
             newTractor.setFill(new ImagePattern(img));
             Platform.runLater(() -> gamePane.getChildren().add(tractors.get(playerID)));
         }
 
-        myTractor = tractors.get(MY_PLAYER_ID);
         movementController = new MovementController(this);
         shotController = new ShotController(this);
         inputController = new InputController(this, movementController, shotController);
+        renderer = new GameRenderer(this);
+        gameLoop = new GameLoop(this);
+        Platform.runLater(() -> gameLoop.start());
 
-        movementListener = new Thread(new MovementListener(this));
-        movementListener.setDaemon(true);
-        movementListener.start();
+        // The listeners only get tuples of this round, which end with the round number. The wake ups complete a get that
+        // is still pending on a remote game space when the round is stopped, with a tuple of player or tick -1. The
+        // movement listeners are woken up by the end of their opponent's positions, see stopRound
+        listeners = new ListenerRuntime("game " + MY_PLAYER_ID);
+        int round = this.round;
 
-        shotListener = new Thread(new ShotListener(this));
-        shotListener.setDaemon(true);
-        shotListener.start();
+        for (Integer playerID : playersIdNameMap.keySet()) {
+            if (playerID != MY_PLAYER_ID)
+                listeners.start(new MovementListener(this, playerID), "movement listener " + playerID);
+        }
 
-        killListener = new Thread(new KillListener(this));
-        killListener.setDaemon(true);
-        killListener.start();
+        listeners.start(new ShotListener(this), "shot listener", () -> gameSpace.put("new shot", -1, MY_PLAYER_ID, -1, -1.0, -1.0, -1.0, round));
+        listeners.start(new KillListener(this), "kill listener", () -> gameSpace.put("kill", MY_PLAYER_ID, -1, -1, round));
+        listeners.start(new GameEndListener(this), "game end listener");
 
-        Thread gameEndListener = new Thread(new GameEndListener(this));
-        gameEndListener.setDaemon(true);
-        gameEndListener.start();
+        if (authoritative && isHost)
+            listeners.start(new InputListener(this), "input listener", () -> gameSpace.put("input", -1, 0, 0, 0, 0, round));
+        else if (authoritative)
+            listeners.start(new SnapshotListener(this), "snapshot listener", () -> gameSpace.put("snapshot", MY_PLAYER_ID, -1, new double[0], new int[0], new double[0], new int[0], round));
+        else
+            listeners.start(new RoundTripProbe(this), "round trip probe");
     }
 
-    private Rectangle randomSpawn() {
+    private void randomSpawn(int slot) {
         Random random = new Random();
         double offsetX = gamePane.getWidth() / (grid.COLS * 2) - PLAYER_WIDTH / 2;
         double offsetY = gamePane.getHeight() / (grid.ROWS * 2) - PLAYER_HEIGHT / 2;
@@ -129,11 +190,12 @@ public class Game {
         double y = gamePane.getHeight() * row / grid.ROWS + offsetY;
         int rotation = random.nextInt(360);
 
-        Rectangle tractor = new Rectangle(PLAYER_WIDTH, PLAYER_HEIGHT);
-        tractor.setLayoutX(x);
-        tractor.setLayoutY(y);
-        tractor.setRotate(rotation);
-        return tractor;
+        world.setTractor(slot, x, y, rotation);
+    }
+
+    // the current round, counting from 1
+    public int getRound() {
+        return round;
     }
 
     public void incrementPlayerScore(Integer playerId) {
@@ -143,41 +205,33 @@ public class Game {
     }
 
     public int numPlayersAlive() {
-        return tractors.size();
+        return world.numAlive();
     }
 
     public void newRound() {
         try {
-            if (movementListener != null) {
-                inputController.disable();
-                movementController.timer.stop();
-                signalGameEndToThreads();
-                joinAllThreads();
-                consumeEverythingInSpace();
-                waitForRunLater();
-                synchronizePlayers();
-            }
+            if (listeners != null)
+                stopRound();
             gameController.displayPlayersNameAndScore(playersIdNameMap, playerScores);
             Platform.runLater(() -> gamePane.getChildren().clear());
             tractors = new HashMap<>();
+            shots = new HashMap<>();
 
-            synchronized (shotsLock) {
-                shots = new HashMap<>();
-            }
-
-            if (GameApplication.isRoomHost) {
-                Grid grid = new Grid(gamePane);
-                for (int playerID : playersIdNameMap.keySet())
-                    gameSpace.put("connected squares", playerID, grid.connectedSquares);
+            // only the seed of the maze is shared, every player generates the maze from it
+            if (isHost) {
+                gameSpace.getp(new ActualField("maze"), new ActualField(round - 1), new FormalField(Long.class), new FormalField(Integer.class), new FormalField(Integer.class), new FormalField(Integer.class));
+                gameSpace.put("maze", round, new Random().nextLong(), MAZE_ROWS, MAZE_COLS, MAZE_WALLS_TO_REMOVE);
             }
 
-            HashSetIntArray connectedSquares = (HashSetIntArray) gameSpace.get(new ActualField("connected squares"), new ActualField(MY_PLAYER_ID), new FormalField(HashSetIntArray.class))[2];
-            setGrid(connectedSquares);
+            Object[] maze = gameSpace.query(new ActualField("maze"), new ActualField(round), new FormalField(Long.class), new FormalField(Integer.class), new FormalField(Integer.class), new FormalField(Integer.class));
+            setGrid((long) maze[2], (int) maze[3], (int) maze[4], (int) maze[5]);
+            round++;
             spawnPlayers();
 
-            Thread playerPositionBroadcaster = new Thread(new PlayerPositionBroadcaster(this, movementController));
-            playerPositionBroadcaster.start();
-            playerPositionBroadcaster.join();
+            // the world is only touched on the FX thread once the game loop has been started
+            Platform.runLater(() -> movementController.broadcastPosition());
+            waitForRunLater();
+            broadcastSender.flush();
 
             synchronizePlayers();
             inputController.enable();
@@ -186,31 +240,40 @@ public class Game {
         }
     }
 
-    private void consumeEverythingInSpace() {
-        try {
-            gameSpace.getAll(new ActualField("player position"), new FormalField(Integer.class), new ActualField(MY_PLAYER_ID), new FormalField(Double.class), new FormalField(Double.class), new FormalField(Double.class), new FormalField(Integer.class));
-            gameSpace.getAll(new ActualField("new shot"), new FormalField(Integer.class), new ActualField(MY_PLAYER_ID), new FormalField(Integer.class), new FormalField(Double.class), new FormalField(Double.class), new FormalField(Double.class));
-            gameSpace.getAll(new ActualField("kill"), new ActualField(MY_PLAYER_ID), new FormalField(Integer.class), new FormalField(Integer.class));
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
-        }
-    }
+    private void stopRound() throws InterruptedException {
+        inputController.disable();
+        Platform.runLater(() -> gameLoop.stop());
+        listeners.stop(); // called from the game end listener, which is left running
+        waitForRunLater();
+        broadcastSender.flush();
 
-    private void signalGameEndToThreads() {
-        try {
-            gameSpace.put("player position", -1, MY_PLAYER_ID, -1.0, -1.0, -1.0, -1);
-            gameSpace.put("new shot", -1, MY_PLAYER_ID, -1, -1.0, -1.0, -1.0);
-            gameSpace.put("kill", MY_PLAYER_ID, -1, -1);
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        if (LOG_BROADCASTS)
+            System.out.println(broadcastSender);
+
+        // an empty update ends own positions, it wakes up the opponents' movement listeners
+        int number = movementController.positionEncoder.updates();
+        gameSpace.put("position", MY_PLAYER_ID, PositionCodec.keyFrame(number), number, new byte[0], round);
+
+        // the host cleans up after the round once every player is done with it, see server.ServerGame.finishRound
+        if (!isHost)
+            gameSpace.put("round done", MY_PLAYER_ID, round);
+
+        synchronizePlayers("round stopped"); // everyone has flushed, nothing from the last round arrives after the cleanup
+        consumeEverythingInSpace(); // including the wake ups nobody was waiting for
+        synchronizePlayers();
     }
 
-    private void joinAllThreads() {
+    private void consumeEverythingInSpace() {
         try {
-            movementListener.join();
-            shotListener.join();
-            killListener.join();
+            gameSpace.getAll(new ActualField("position"), new ActualField(MY_PLAYER_ID), new FormalField(Integer.class), new FormalField(Integer.class), new FormalField(byte[].class), new ActualField(round));
+            gameSpace.getAll(new ActualField("new shot"), new FormalField(Integer.class), new ActualField(MY_PLAYER_ID), new FormalField(Integer.class), new FormalField(Double.class), new FormalField(Double.class), new FormalField(Double.class), new ActualField(round));
+            gameSpace.getAll(new ActualField("kill"), new ActualField(MY_PLAYER_ID), new FormalField(Integer.class), new FormalField(Integer.class), new ActualField(round));
+            gameSpace.getAll(new ActualField("snapshot"), new ActualField(MY_PLAYER_ID), new FormalField(Integer.class), new FormalField(double[].class), new FormalField(int[].class), new FormalField(double[].class), new FormalField(int[].class), new ActualField(round));
+
+            if (isHost) {
+                gameSpace.getAll(new ActualField("input"), new FormalField(Integer.class), new FormalField(Integer.class), new FormalField(Integer.class), new FormalField(Integer.class), new FormalField(Integer.class), new ActualField(round));
+                gameSpace.getAll(new ActualField("round done"), new FormalField(Integer.class), new ActualField(round));
+            }
         } catch (InterruptedException e) {
             throw new RuntimeException(e);
         }
@@ -228,12 +291,17 @@ public class Game {
     }
 
     public void synchronizePlayers() {
+        synchronizePlayers("player ready");
+    }
+
+    // barrier for all players, a tag per barrier keeps two barriers in a row apart
+    private void synchronizePlayers(String tag) {
         try {
             for (int i = 0; i < playersIdNameMap.size(); i++)
-                gameSpace.put("player ready", MY_PLAYER_ID);
+                gameSpace.put(tag, MY_PLAYER_ID);
 
             for (Integer playerID : playersIdNameMap.keySet())
-                gameSpace.get(new ActualField("player ready"), new ActualField(playerID));
+                gameSpace.get(new ActualField(tag), new ActualField(playerID));
         } catch (InterruptedException e) {
             throw new RuntimeException(e);
         }
@@ -16,7 +16,6 @@ public class GameApplication {
     private final String LOBBY_HOST_IP;
     public static final String PORT = ":9001";
     public static final String PROTOCOL = "tcp://";
-    private static final int GAME_ID = 1535;
     public static final int WINDOW_WIDTH = 960;
     public static final int WINDOW_HEIGHT = 540;
 
@@ -25,20 +24,23 @@ public class GameApplication {
 
     public static boolean isServerHost;
     public static boolean isRoomHost;
+    public boolean dedicatedServer; // the lobby, rooms and games are hosted by a server.DedicatedServer
     public SpaceRepository repository;
+    public HostedSpaces hostedSpaces; // rooms and games hosted by this player
     SequentialSpace serverLobby;
-    SequentialSpace serverGameSpace;
+    Space serverGameSpace;
     RemoteSpace clientLobby;
     RemoteSpace clientGameSpace;
     public int playerID;
 
     public GameApplication(Stage stage, String lobbyHostIP, boolean isServerHost, String name) {
         LOBBY_HOST_IP = lobbyHostIP;
-        this.isServerHost = isServerHost;
+        GameApplication.isServerHost = isServerHost;
         this.name = name;
 
         try {
             repository = new SpaceRepository();
+            hostedSpaces = new HostedSpaces(repository);
             serverLobby = new SequentialSpace();
 
             repository.add("lobby", serverLobby);
@@ -51,7 +53,9 @@ public class GameApplication {
 
             if (isServerHost) {
                 serverLobby.put("player id", 0);
+                RoomDirectory.create(serverLobby);
             }
+            dedicatedServer = clientLobby.queryp(new ActualField("dedicated server")) != null;
             playerID = (int) clientLobby.get(new ActualField("player id"), new FormalField(Integer.class))[1];
             clientLobby.put("player id", playerID + 1);
             System.out.println("Player id: " + playerID);
@@ -84,27 +88,35 @@ public class GameApplication {
             Game game;
 
             // Query the list of player names and id provided by room
-            ArrayList<String> playerNameList = (ArrayList<String>) roomSpace.query(new ActualField("playerNameList"), new FormalField(ArrayList.class))[1];
+            ArrayList<String> playerNameList = RoomMembers.names(roomSpace.query(new ActualField("playerNameList"), new FormalField(ArrayList.class)));
             ArrayListInt playerIdList = (ArrayListInt) roomSpace.query(new ActualField("playerIdList"), new FormalField(ArrayListInt.class))[1];
-            Object[] roomObjs = roomSpace.query(new ActualField("room ip"), new FormalField(String.class));
-            String ip = (String) roomObjs[1];
+            String address = (String) roomSpace.query(new ActualField("room address"), new FormalField(String.class))[1];
+            String gameUri = (String) roomSpace.query(new ActualField("game uri"), new FormalField(String.class))[1];
             // Collect the two lists to a map with id as keys and names as values
             Map<Integer, String> playersIdNameMap = IntStream.range(0, playerNameList.size()).boxed().collect(Collectors.toMap(i -> playerIdList.get(i), i -> playerNameList.get(i)));
             System.out.println("PlayerIdNameMap: " + playersIdNameMap.toString());
             if (isRoomHost) {
-                clientLobby.get(new ActualField("room"), new ActualField(ip), new FormalField(String.class), new FormalField(Integer.class));
+                RoomDirectory.removeRoom(clientLobby, address);
+            }
+            // on a dedicated server the server runs the game, and the room host plays it like everyone else
+            if (isRoomHost && !dedicatedServer) {
                 System.out.println("Host is creating a new game...");
-                serverGameSpace = new SequentialSpace();
-                repository.add("gameSpace" + GAME_ID, serverGameSpace);
-                game = new Game(stage, serverGameSpace, playersIdNameMap, playerID);
+                game = new Game(stage, serverGameSpace, playersIdNameMap, playerID, true);
             } else {
                 System.out.println("Client is getting existing game...");
-                String clientUri = PROTOCOL + ip + PORT + "/gameSpace" + GAME_ID + "?keep";
-                System.out.println("game client uri: " + clientUri);
-                clientGameSpace = new RemoteSpace(clientUri);
+                System.out.println("game client uri: " + gameUri);
+                clientGameSpace = new RemoteSpace(gameUri);
 
-                game = new Game(stage, clientGameSpace, playersIdNameMap, playerID);
+                game = new Game(stage, clientGameSpace, playersIdNameMap, playerID, false);
             }
+            // closing the window leaves the room, its game is over once everyone has left, see EmptyRoomListener
+            stage.setOnCloseRequest(e -> {
+                try {
+                    RoomMembers.leave(roomSpace, playerID, name);
+                } catch (InterruptedException ex) {
+                    throw new RuntimeException(ex);
+                }
+            });
             stage.setScene(game.gameScene);
             game.gameScene.getRoot().requestFocus();
             game.newRound();
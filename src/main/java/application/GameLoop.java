@@ -0,0 +1,54 @@
+package application;
+
+import broadcasters.SnapshotBroadcaster;
+import javafx.animation.AnimationTimer;
+
+// Fixed timestep loop: the time since the last pulse is added to an accumulator and the simulation advances in whole ticks
+// of 1 / tickRate seconds, independent of the frame rate. What is left in the accumulator is used to interpolate between
+// the last two ticks when rendering.
+public class GameLoop extends AnimationTimer {
+    private static final long MAX_FRAME_TIME = 250_000_000; // ns, don't try to catch up on more than this after a stall
+    private final Game game;
+    private final long tickTime; // ns
+    private long lastPulse = -1;
+    private long accumulator;
+    private int tick;
+
+    public GameLoop(Game game) {
+        this.game = game;
+        tickTime = 1_000_000_000L / game.simulation.tickRate;
+    }
+
+    @Override
+    public void handle(long now) {
+        if (lastPulse < 0)
+            lastPulse = now;
+
+        accumulator += Math.min(now - lastPulse, MAX_FRAME_TIME);
+        lastPulse = now;
+
+        while (accumulator >= tickTime) {
+            tick();
+            accumulator -= tickTime;
+        }
+
+        game.renderer.render((double) accumulator / tickTime);
+    }
+
+    public void tick() {
+        game.world.savePreviousState();
+        game.movementController.tick();
+
+        // a client of an authoritative host only predicts its own tractor, the world comes from the host's snapshots
+        if (game.authoritative && !game.isHost)
+            return;
+
+        if (game.isHost)
+            game.lagCompensation.record();
+
+        game.shotController.updateShots();
+
+        if (game.authoritative)
+            game.broadcastSender.sendLatest(SnapshotBroadcaster.class, new SnapshotBroadcaster(game, tick++));
+    }
+}
@@ -0,0 +1,42 @@
+package application;
+
+import javafx.scene.shape.Rectangle;
+import model.World;
+
+// Copies the state of the world to the tractor and shot nodes, called by the game loop once per pulse.
+// alpha is how far the pulse is between the previous and the current tick, from 0 to 1
+public class GameRenderer {
+    private final Game game;
+
+    public GameRenderer(Game game) {
+        this.game = game;
+    }
+
+    public void render(double alpha) {
+        World world = game.world;
+
+        for (int slot = 0; slot < world.numTractors; slot++) {
+            Rectangle tractor = game.tractors.get(world.playerIDs[slot]);
+
+            if (tractor != null && world.alive[slot]) {
+                tractor.setLayoutX(interpolate(world.previousTractorX[slot], world.tractorX[slot], alpha));
+                tractor.setLayoutY(interpolate(world.previousTractorY[slot], world.tractorY[slot], alpha));
+                tractor.setRotate(interpolate(world.previousTractorRotation[slot], world.tractorRotation[slot], alpha));
+            }
+        }
+
+        for (int i = 0; i < world.numShots; i++) {
+            Shot shot = game.shots.get(world.shotIDs[i]);
+
+            if (shot != null) {
+                shot.setLayoutX(interpolate(world.previousShotX[i], world.shotX[i], alpha));
+                shot.setLayoutY(interpolate(world.previousShotY[i], world.shotY[i], alpha));
+                shot.setRotate(world.shotRotation[i]);
+            }
+        }
+    }
+
+    private static double interpolate(double previous, double current, double alpha) {
+        return previous + (current - previous) * alpha;
+    }
+}
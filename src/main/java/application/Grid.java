@@ -1,177 +1,130 @@
 package application;
 
-import datatypes.HashSetIntArray;
+import datatypes.MazeWalls;
 import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
-import javafx.scene.shape.Shape;
-import org.apache.commons.lang3.ArrayUtils;
+import physics.WallIndex;
 
-import java.util.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 public class Grid {
-    public final int ROWS = 9, COLS = 9;
-    private final int WALLS_TO_REMOVE = 5;
-    private final boolean[][] visited = new boolean[ROWS][COLS];
-    public ArrayList<Rectangle> horizontalWalls = new ArrayList<>();
-    public ArrayList<Rectangle> verticalWalls = new ArrayList<>();
+    public static final int DEFAULT_ROWS = 9, DEFAULT_COLS = 9, DEFAULT_WALLS_TO_REMOVE = 5;
+    private static final int OUTER_WALLS = 2; // per orientation
+    public final int ROWS, COLS;
+
+    // per cell index of the wall geometry, used by the collision tests
+    private WallIndex horizontalWallIndex, verticalWallIndex;
 
     // iff two squares are connected, there is no wall between them
-    public HashSetIntArray connectedSquares = new HashSetIntArray(); // {row1, col1, row2, col2}
+    public MazeWalls maze;
 
-    public Grid(Pane gamePane) {
-        dfsBacktracker(0, 0);
-        removeSomeWalls();
-        generateWallRectangles(gamePane);
+    // The maze only depends on the seed and the parameters, so every player generates the same maze from them
+    public Grid(Pane gamePane, long seed, int rows, int cols, int wallsToRemove) {
+        this(gamePane.getWidth(), gamePane.getHeight(), MazeGenerator.generate(seed, rows, cols, wallsToRemove));
     }
 
-    public Grid(Pane gamePane, HashSetIntArray connectedSquares) {
-        this.connectedSquares = connectedSquares;
-        generateWallRectangles(gamePane);
+    public Grid(Pane gamePane, MazeWalls maze) {
+        this(gamePane.getWidth(), gamePane.getHeight(), maze);
     }
 
-    private void dfsBacktracker(int curRow, int curCol) {
-        visited[curRow][curCol] = true;
-        Integer[] curSquare = {curRow, curCol};
-
-        int[][] dir = {{1, 0}, {0, 1}, {-1, 0}, {0, -1}};
-        Collections.shuffle(Arrays.asList(dir)); // randomize directions
-
-        for (int i = 0; i < 4; i++) {
-            int newRow = curRow + dir[i][0];
-            int newCol = curCol + dir[i][1];
-
-            if (inBounds(newRow, newCol) && !visited[newRow][newCol]) {
-                Integer[] newConnection = ArrayUtils.addAll(curSquare, newRow, newCol);
-                connectedSquares.add(newConnection);
-                dfsBacktracker(newRow, newCol);
-            }
-        }
+    // grid of the given size without a pane, e.g. when nothing is rendered
+    public Grid(double width, double height, MazeWalls maze) {
+        ROWS = maze.getRows();
+        COLS = maze.getCols();
+        this.maze = maze;
+        generateWalls(width, height);
     }
 
-    private boolean inBounds(int row, int col) {
-        return 0 <= row && row < ROWS && 0 <= col && col < COLS;
+    public boolean notConnected(int row1, int col1, int row2, int col2) {
+        return !maze.isConnected(row1, col1, row2, col2);
     }
 
-    private void removeSomeWalls() {
-        Random random = new Random();
-        int removed = 0;
-
-        while (removed < WALLS_TO_REMOVE) {
-            // choose random square and random direction array
-            int curRow = random.nextInt(ROWS);
-            int curCol = random.nextInt(COLS);
-            Integer[] curSquare = {curRow, curCol};
-
-            int[][] dir = {{1, 0}, {0, 1}, {-1, 0}, {0, -1}};
-            Collections.shuffle(Arrays.asList(dir));
-
-            // for the first direction where squares are not connected: connect them
-            for (int i = 0; i < 4; i++) {
-                int newRow = curRow + dir[i][0];
-                int newCol = curCol + dir[i][1];
-                Integer[] newSquare = {newRow, newCol};
-
-                if (inBounds(newRow, newCol) && notConnected(curSquare, newSquare)) {
-                    Integer[] newConnection = ArrayUtils.addAll(curSquare, newSquare);
-                    connectedSquares.add(newConnection);
-                    removed++;
-                    break;
-                }
-            }
-        }
-    }
-
-    public boolean notConnected(Integer[] p1, Integer[] p2) {
-        Integer[] conn1 = ArrayUtils.addAll(p1, p2);
-        Integer[] conn2 = ArrayUtils.addAll(p2, p1);
-
-        for (Integer[] element : connectedSquares) {
-            if (Arrays.equals(element, conn1) || Arrays.equals(element, conn2))
-                return false;
-        }
-
-        return true;
-    }
-
-    private void generateWallRectangles(Pane gamePane) {
-        double paneWidth = gamePane.getWidth();
-        double paneHeight = gamePane.getHeight();
+    private void generateWalls(double paneWidth, double paneHeight) {
         double wallThickness = 2.0;
         double offset = wallThickness / 2;
         double wallWidth = paneWidth / COLS;
         double wallHeight = paneHeight / ROWS;
+        double[] horizontal = new double[4 * ((ROWS - 1) * COLS + OUTER_WALLS)];
+        double[] vertical = new double[4 * (ROWS * (COLS - 1) + OUTER_WALLS)];
+        int numHorizontal = 0, numVertical = 0;
 
         // inner walls
         for (int row = 0; row < ROWS; row++) {
             for (int col = 0; col < COLS; col++) {
-                Integer[] p1, p2;
-
                 // add wall below
-                if (row < ROWS - 1) {
-                    p1 = new Integer[]{row, col};
-                    p2 = new Integer[]{row + 1, col};
-
-                    if (notConnected(p1, p2)) {
-                        double x = paneWidth * col / COLS + offset;
-                        double y = paneHeight * (row + 1) / ROWS;
-                        addInnerWall(new Rectangle(x, y, wallWidth, wallThickness), "horizontal");
-                    }
+                if (row < ROWS - 1 && !maze.isConnected(row, col, MazeWalls.SOUTH)) {
+                    double x = paneWidth * col / COLS + offset;
+                    double y = paneHeight * (row + 1) / ROWS;
+                    numHorizontal = addWall(horizontal, numHorizontal, x, y, wallWidth, wallThickness);
                 }
 
                 // add wall to the right
-                if (col < COLS - 1) {
-                    p1 = new Integer[]{row, col};
-                    p2 = new Integer[]{row, col + 1};
-
-                    if (notConnected(p1, p2)) {
-                        double x = paneWidth * (col + 1) / COLS;
-                        double y = paneHeight * row / ROWS + offset;
-                        addInnerWall(new Rectangle(x, y, wallThickness, wallHeight), "vertical");
-                    }
+                if (col < COLS - 1 && !maze.isConnected(row, col, MazeWalls.EAST)) {
+                    double x = paneWidth * (col + 1) / COLS;
+                    double y = paneHeight * row / ROWS + offset;
+                    numVertical = addWall(vertical, numVertical, x, y, wallThickness, wallHeight);
                 }
             }
         }
 
-        // outer walls
-        horizontalWalls.add(new Rectangle(0, 0, paneWidth, wallThickness));
-        horizontalWalls.add(new Rectangle(0, paneHeight, paneWidth + wallThickness, wallThickness));
-        verticalWalls.add(new Rectangle(0, 0, wallThickness, paneHeight));
-        verticalWalls.add(new Rectangle(paneWidth, 0, wallThickness, paneHeight + wallThickness));
-    }
+        // outer walls, always the last ones
+        numHorizontal = addWall(horizontal, numHorizontal, 0, 0, paneWidth, wallThickness);
+        numHorizontal = addWall(horizontal, numHorizontal, 0, paneHeight, paneWidth + wallThickness, wallThickness);
+        numVertical = addWall(vertical, numVertical, 0, 0, wallThickness, paneHeight);
+        numVertical = addWall(vertical, numVertical, paneWidth, 0, wallThickness, paneHeight + wallThickness);
 
-    private void addInnerWall(Rectangle wall, String orientation) {
-        wall.setFill(Color.DIMGRAY);
+        horizontalWallIndex = new WallIndex(Arrays.copyOf(horizontal, 4 * numHorizontal), ROWS, COLS, paneWidth, paneHeight);
+        verticalWallIndex = new WallIndex(Arrays.copyOf(vertical, 4 * numVertical), ROWS, COLS, paneWidth, paneHeight);
+    }
 
-        if (orientation.equals("horizontal"))
-            horizontalWalls.add(wall);
-        else
-            verticalWalls.add(wall);
+    private static int addWall(double[] walls, int numWalls, double x, double y, double width, double height) {
+        walls[4 * numWalls] = x;
+        walls[4 * numWalls + 1] = y;
+        walls[4 * numWalls + 2] = width;
+        walls[4 * numWalls + 3] = height;
+        return numWalls + 1;
     }
 
-    public boolean isCollision(Shape s1, Shape s2) {
-        return Shape.intersect(s1, s2).getBoundsInParent().getWidth() > 0;
+    // nodes for displaying the walls, the grid itself only keeps their geometry
+    public List<Rectangle> createWallRectangles() {
+        List<Rectangle> rectangles = new ArrayList<>();
+        addWallRectangles(rectangles, horizontalWallIndex.getWalls());
+        addWallRectangles(rectangles, verticalWallIndex.getWalls());
+        return rectangles;
     }
 
-    public boolean isWallCollisionHorizontal(Shape shape) {
-        for (var wall : horizontalWalls) {
-            if (isCollision(shape, wall))
-                return true;
+    private static void addWallRectangles(List<Rectangle> rectangles, double[] walls) {
+        int numWalls = walls.length / 4;
+
+        for (int i = 0; i < numWalls; i++) {
+            Rectangle wall = new Rectangle(walls[4 * i], walls[4 * i + 1], walls[4 * i + 2], walls[4 * i + 3]);
+
+            if (i < numWalls - OUTER_WALLS)
+                wall.setFill(Color.DIMGRAY);
+
+            rectangles.add(wall);
         }
+    }
 
-        return false;
+    // box given by center, half extents and rotation in degrees, e.g. a tractor
+    public boolean isBoxWallCollision(double cx, double cy, double halfWidth, double halfHeight, double angleInDegrees) {
+        return horizontalWallIndex.isBoxCollision(cx, cy, halfWidth, halfHeight, angleInDegrees)
+                || verticalWallIndex.isBoxCollision(cx, cy, halfWidth, halfHeight, angleInDegrees);
     }
 
-    public boolean isWallCollisionVertical(Shape shape) {
-        for (var wall : verticalWalls) {
-            if (isCollision(shape, wall))
-                return true;
-        }
+    // circle given by center and radius, e.g. a shot
+    public boolean isCircleWallCollisionHorizontal(double cx, double cy, double radius) {
+        return horizontalWallIndex.isCircleCollision(cx, cy, radius);
+    }
 
-        return false;
+    public boolean isCircleWallCollisionVertical(double cx, double cy, double radius) {
+        return verticalWallIndex.isCircleCollision(cx, cy, radius);
     }
 
-    public boolean isWallCollision(Shape shape) {
-        return isWallCollisionHorizontal(shape) || isWallCollisionVertical(shape);
+    public boolean isCircleWallCollision(double cx, double cy, double radius) {
+        return isCircleWallCollisionHorizontal(cx, cy, radius) || isCircleWallCollisionVertical(cx, cy, radius);
     }
 }
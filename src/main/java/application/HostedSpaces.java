@@ -0,0 +1,53 @@
+package application;
+
+import org.jspace.Space;
+import org.jspace.SpaceRepository;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// The room and game spaces a process hosts in its repository. Every space gets a unique name, so a process can host
+// any number of rooms and games, and a space is removed again when its room is empty - the space and its tuples are
+// then garbage, see EmptyRoomListener. toString is a gauge of the live spaces and their tuples.
+public class HostedSpaces {
+    private final SpaceRepository repository;
+    private final Map<String, Space> spaces = new ConcurrentSkipListMap<>();
+    private final AtomicInteger nextID = new AtomicInteger();
+
+    public HostedSpaces(SpaceRepository repository) {
+        this.repository = repository;
+    }
+
+    // returns the name the space is hosted under, prefix followed by a number
+    public String add(String prefix, Space space) {
+        String name = prefix + nextID.getAndIncrement();
+        spaces.put(name, space);
+        repository.add(name, space);
+        return name;
+    }
+
+    public void remove(String name) {
+        repository.remove(name);
+        spaces.remove(name);
+    }
+
+    public int numSpaces() {
+        return spaces.size();
+    }
+
+    public int numTuples() {
+        int numTuples = 0;
+        for (Space space : spaces.values())
+            numTuples += space.size();
+        return numTuples;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder gauge = new StringBuilder(numSpaces() + " spaces, " + numTuples() + " tuples");
+        for (Map.Entry<String, Space> space : spaces.entrySet())
+            gauge.append("\n  ").append(space.getKey()).append(": ").append(space.getValue().size()).append(" tuples");
+        return gauge.toString();
+    }
+}
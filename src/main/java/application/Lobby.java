@@ -1,13 +1,15 @@
 package application;
 
 import controllers.LobbySceneController;
-import datatypes.ArrayListInt;
+import datatypes.IndexedSpace;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.ListView;
 import javafx.scene.layout.AnchorPane;
 import javafx.stage.Stage;
+import listeners.EmptyRoomListener;
+import listeners.ListenerRuntime;
 import listeners.RoomListListener;
 import org.jspace.*;
 
@@ -16,7 +18,6 @@ import java.net.DatagramSocket;
 import java.net.InetAddress;
 import java.net.SocketException;
 import java.net.UnknownHostException;
-import java.util.ArrayList;
 
 public class Lobby {
     private Stage stage;
@@ -29,11 +30,12 @@ public class Lobby {
     private String name;
     private int playerID;
     public ListView<Room> roomList;
+    private ListenerRuntime listeners = new ListenerRuntime("lobby");
 
     public Lobby(Stage stage, GameApplication application, Space lobbySpace) {
         this.stage = stage;
         this.application = application;
-        this.lobbySpace = lobbySpace;
+        Lobby.lobbySpace = lobbySpace;
         name = application.name;
         playerID = application.playerID;
         setupLobbyLayout();
@@ -47,21 +49,16 @@ public class Lobby {
             Button createRoomButton = lobbyController.createRoomButton;
             roomList = lobbyController.roomList;
 
-            createRoomButton.setOnAction(e -> {
-                createRoom(getIp());
-                launchRoom(roomHost);
-            });
+            createRoomButton.setOnAction(e -> launchRoom(createRoom()));
             // Start listener to update the roomlist
-            Thread roomListListener = new Thread(new RoomListListener(lobbySpace, roomList));
-            roomListListener.setDaemon(true);
-            roomListListener.start();
+            listeners.start(new RoomListListener(lobbySpace, roomList), "room list listener");
             roomList.setOnMouseClicked(e -> {
                 if (e.getClickCount() >= 2 && roomList.getSelectionModel().getSelectedItem() != null) {
                     Room selectedRoom = roomList.getSelectionModel().getSelectedItem();
                     // Disallow joining a room thats full
                     if (selectedRoom.getNumberOfPlayers() == 4) return;
-                    String ip = selectedRoom.getIp();
-                    joinRoom(ip);
+                    String address = selectedRoom.getAddress();
+                    joinRoom(address);
                     launchRoom(roomClient);
                 }
             });
@@ -71,37 +68,44 @@ public class Lobby {
         }
     }
 
-    private void createRoom(String ip) {
+    private Space createRoom() {
         try {
             GameApplication.isRoomHost = true;
+
+            // A dedicated server creates the room, the creator then joins it like everyone else
+            if (application.dedicatedServer) {
+                lobbySpace.put("create room", playerID, name);
+                String address = (String) lobbySpace.get(new ActualField("room created"), new ActualField(playerID), new FormalField(String.class))[2];
+                System.out.println("Client room URI: " + RoomSpace.uri(address));
+                roomClient = new RemoteSpace(RoomSpace.uri(address));
+                return roomClient;
+            }
+
+            String ip = getIp();
             roomHost = new SequentialSpace();
+            application.serverGameSpace = new IndexedSpace(); // the hot path of the game, see IndexedSpace
             String uri = GameApplication.PROTOCOL + ip + GameApplication.PORT + "/?keep";
-            application.repository.add("room", roomHost);
+            String roomSpaceName = application.hostedSpaces.add("room", roomHost);
+            String gameSpaceName = application.hostedSpaces.add("game", application.serverGameSpace);
             application.repository.addGate(uri);
-            String clientRoomUri = GameApplication.PROTOCOL + ip + GameApplication.PORT + "/room?keep";
-            System.out.println("Client room URI: " + clientRoomUri);
+            String address = RoomSpace.address(ip, roomSpaceName);
+            System.out.println("Client room URI: " + RoomSpace.uri(address));
+            RoomSpace.create(roomHost, address, RoomSpace.uri(RoomSpace.address(ip, gameSpaceName)), playerID);
             // Create room thats visible from the lobby
-            lobbySpace.put("room", ip, name, 1);
-            roomHost.put("playerNameList", new ArrayList<String>());
-            roomHost.put("playerIdList", new ArrayListInt());
-            roomHost.put("clientUri", clientRoomUri);
-            roomHost.put("hostID", playerID);
-            roomHost.put("room ip", ip);
-            roomHost.put("turn", 1);
-            roomHost.put("players", 1);
-            roomHost.put("readers", 0);
-        } catch (InterruptedException e) {
+            RoomDirectory.addRoom(lobbySpace, address, name, 1);
+            ListenerRuntime roomListeners = new ListenerRuntime(roomSpaceName);
+            roomListeners.start(new ChatTrimmer(roomHost), "chat trimmer");
+            listeners.start(new EmptyRoomListener(lobbySpace, roomHost, application.hostedSpaces, roomSpaceName, gameSpaceName, roomListeners), "empty room listener " + roomSpaceName);
+            return roomHost;
+        } catch (IOException | InterruptedException e) {
             throw new RuntimeException(e);
         }
     }
 
-    private void joinRoom(String ip) {
+    private void joinRoom(String address) {
         try {
             GameApplication.isRoomHost = false;
-            // Increment number of players by 1
-            Object[] obj = lobbySpace.get(new ActualField("room"), new ActualField(ip), new FormalField(String.class), new FormalField(Integer.class));
-            String uri = GameApplication.PROTOCOL + ip + GameApplication.PORT + "/room?keep";
-            roomClient = new RemoteSpace(uri);
+            roomClient = new RemoteSpace(RoomSpace.uri(address));
             Object[] obj2 = roomClient.queryp(new ActualField("hostID"), new FormalField(Integer.class));
             if (obj2 != null) {
                 int hostID = (int) obj2[1];
@@ -109,7 +113,8 @@ public class Lobby {
                     GameApplication.isRoomHost = true;
                 }
             }
-            lobbySpace.put(obj[0], obj[1], obj[2], (Integer) obj[3] + 1);
+            // Increment number of players by 1
+            RoomDirectory.changePlayers(lobbySpace, address, 1);
         } catch (IOException | InterruptedException e) {
             throw new RuntimeException(e);
         }
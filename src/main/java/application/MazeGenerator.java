@@ -0,0 +1,86 @@
+package application;
+
+import datatypes.MazeWalls;
+
+import java.util.Random;
+
+// Generates the maze from a seed without any JavaFX, so it can be built by every player and by a headless host.
+// The depth first search keeps its own stack, so large mazes don't overflow the call stack,
+// and the extra walls are removed by picking from the walls still standing, so the number of attempts is bounded.
+public class MazeGenerator {
+    private static final int[] DIRECTIONS = {MazeWalls.NORTH, MazeWalls.EAST, MazeWalls.SOUTH, MazeWalls.WEST};
+    private static final int[] ROW_STEP = {-1, 0, 1, 0};
+    private static final int[] COL_STEP = {0, 1, 0, -1};
+
+    private MazeGenerator() {
+    }
+
+    public static MazeWalls generate(long seed, int rows, int cols, int wallsToRemove) {
+        if (rows < 1 || cols < 1)
+            throw new IllegalArgumentException("Maze must have at least one row and one column, got " + rows + "x" + cols);
+
+        Random random = new Random(seed);
+        MazeWalls maze = new MazeWalls(rows, cols);
+        dfsBacktracker(maze, random);
+        removeSomeWalls(maze, random, wallsToRemove);
+        return maze;
+    }
+
+    private static void dfsBacktracker(MazeWalls maze, Random random) {
+        int rows = maze.getRows(), cols = maze.getCols();
+        boolean[] visited = new boolean[rows * cols];
+        int[] stack = new int[rows * cols];
+        int[] candidates = new int[4];
+        int top = 0;
+
+        stack[top++] = 0;
+        visited[0] = true;
+
+        while (top > 0) {
+            int cur = stack[top - 1];
+            int curRow = cur / cols;
+            int curCol = cur % cols;
+
+            // collect the unvisited neighbours
+            int numCandidates = 0;
+            for (int dir : DIRECTIONS) {
+                int newRow = curRow + ROW_STEP[dir];
+                int newCol = curCol + COL_STEP[dir];
+
+                if (0 <= newRow && newRow < rows && 0 <= newCol && newCol < cols && !visited[newRow * cols + newCol])
+                    candidates[numCandidates++] = dir;
+            }
+
+            // dead end - backtrack
+            if (numCandidates == 0) {
+                top--;
+                continue;
+            }
+
+            int dir = candidates[random.nextInt(numCandidates)];
+            int next = (curRow + ROW_STEP[dir]) * cols + curCol + COL_STEP[dir];
+            maze.connect(curRow, curCol, dir);
+            visited[next] = true;
+            stack[top++] = next;
+        }
+    }
+
+    private static void removeSomeWalls(MazeWalls maze, Random random, int wallsToRemove) {
+        int[] walls = new int[maze.numWalls()];
+        int numWalls = 0;
+
+        for (int wall = 0; wall < walls.length; wall++) {
+            if (maze.isWall(wall))
+                walls[numWalls++] = wall;
+        }
+
+        // partial Fisher-Yates shuffle: each pick is uniform among the walls not yet removed
+        int toRemove = Math.min(wallsToRemove, numWalls);
+        for (int i = 0; i < toRemove; i++) {
+            int j = i + random.nextInt(numWalls - i);
+            int wall = walls[j];
+            walls[j] = walls[i];
+            maze.removeWall(wall);
+        }
+    }
+}
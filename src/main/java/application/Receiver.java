@@ -1,50 +1,46 @@
 package application;
 
-import datatypes.ArrayListInt;
 import org.jspace.ActualField;
 import org.jspace.FormalField;
 import org.jspace.Space;
 
-import java.util.List;
-import java.util.Queue;
+import java.util.function.Consumer;
 
+// Reads the chat log in order, see ChatClient. The cursor of this client is written back every CURSOR_INTERVAL
+// messages, and the room's ChatTrimmer then removes the messages every client has read.
 class Receiver implements Runnable{
+    static final int CURSOR_INTERVAL = 16;
+
     private Space chat;
-    private Space messages;
-    private ArrayListInt players;
+    private Consumer<String> onMessage;
     private int player;
-    private boolean exit = false;
+    private int cursor; // sequence number of the next message to read
+    private int writtenCursor; // the cursor in the chat space
 
-    public Receiver(Space chat, Space messages, int player, ArrayListInt players){
+    public Receiver(Space chat, Consumer<String> onMessage, int player, int cursor){
         this.chat = chat;
-        this.messages = messages;
+        this.onMessage = onMessage;
         this.player = player;
-        this.players = players;
+        this.cursor = cursor;
+        writtenCursor = cursor;
     }
 
     @Override
     public void run(){
-        while(!exit){
-            try {
-                chat.get(new ActualField("turn"), new ActualField(player));
-                players = (ArrayListInt)chat.query(new ActualField("playerIdList"),new FormalField(ArrayListInt.class))[1];
-                List<Object[]> messages = chat.queryAll(new ActualField("message"), new FormalField(String.class));
-                for (Object[] message : messages) {
-                    this.messages.put(message[1]);
-                }
-                if(player != players.get(players.size()-1)) chat.put("turn", players.get(players.indexOf(player)+1));
-                else {
-                    for(Object[] message : messages){
-                        chat.get(new ActualField(message[0]), new ActualField(message[1]));
-                    }
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Object[] message = chat.query(new ActualField("chat message"), new ActualField(cursor), new FormalField(String.class));
+                onMessage.accept((String) message[2]);
+                cursor++;
+
+                // the new cursor is put before the old one is removed, so the trimmer never sees this client without one
+                if (cursor % CURSOR_INTERVAL == 0) {
+                    chat.put("chat cursor", player, cursor);
+                    chat.getp(new ActualField("chat cursor"), new ActualField(player), new ActualField(writtenCursor));
+                    writtenCursor = cursor;
                 }
-            } catch (InterruptedException e) {
-                throw new RuntimeException(e);
             }
+        } catch (InterruptedException ignored) {
         }
     }
-
-    public void stop() {
-        exit = true;
-    }
 }
@@ -2,7 +2,6 @@ package application;
 
 import controllers.ChatBoxViewController;
 import controllers.RoomSceneViewController;
-import datatypes.ArrayListInt;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXMLLoader;
@@ -11,6 +10,7 @@ import javafx.scene.control.Button;
 import javafx.scene.layout.BorderPane;
 import javafx.stage.Stage;
 import javafx.util.Callback;
+import listeners.ListenerRuntime;
 import listeners.RoomPlayerListener;
 import listeners.StartGameListener;
 import org.jspace.ActualField;
@@ -37,25 +37,21 @@ public class Room {
     private String hostName;
     public static ArrayList<String> playerNames;
 
-    private ArrayListInt playerIds;
-
     private String name;
-    private String ip;
+    private String address;
     private int numberOfPlayers;
-    private Thread startGameListenerThread;
-    private Thread roomPlayerListenerThread;
+    private ListenerRuntime listeners;
 
     // Constructor used for RoomCell in ListView
-    public Room(String ip, String name, int numberOfPlayers) {
-        this.ip = ip;
+    public Room(String address, String name, int numberOfPlayers) {
+        this.address = address;
         this.name = name;
         this.numberOfPlayers = numberOfPlayers;
     }
 
     public Room(Stage stage, GameApplication application, Space roomSpace) {
         this.roomSpace = roomSpace;
-        playerNames = new ArrayList();
-        playerIds = new ArrayListInt();
+        playerNames = new ArrayList<>();
         try {
             uri = (String) roomSpace.query(new ActualField("clientUri"), new FormalField(String.class))[1];
             hostName = (String) roomSpace.query(new ActualField("host name"), new FormalField(String.class))[1];
@@ -65,8 +61,7 @@ public class Room {
             roomLoader = new FXMLLoader(RoomSceneViewController.class.getResource(roomFileName));
             chatboxLoader = new FXMLLoader(ChatBoxViewController.class.getResource(chatFileName));
 
-            initializePlayerNames(roomSpace);
-            initializePlayerIds(roomSpace);
+            RoomMembers.join(roomSpace, playerId, name);
             populateChatBoxConstructor(uri, playerId, name);
 
             setupRoomLayout(stage, application);
@@ -77,26 +72,6 @@ public class Room {
 
     }
 
-    private void initializePlayerIds(Space space) {
-        try {
-            playerIds = (ArrayListInt) space.get(new ActualField("playerIdList"), new FormalField(ArrayListInt.class))[1];
-            playerIds.add(playerId);
-            roomSpace.put("playerIdList", playerIds);
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
-        }
-    }
-
-    private void initializePlayerNames(Space space) {
-        try {
-            playerNames = (ArrayList<String>) space.get(new ActualField("playerNameList"), new FormalField(ArrayList.class))[1];
-            playerNames.add(name);
-            roomSpace.put("playerNameList", playerNames);
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
-        }
-    }
-
 
     private void setupRoomLayout(Stage stage, GameApplication application) throws IOException {
         BorderPane chatbox = chatboxLoader.load();
@@ -105,14 +80,11 @@ public class Room {
         roomController = roomLoader.getController();
 
         // Start the listener thread to update the ListView when new players join
-        roomPlayerListenerThread = new Thread(new RoomPlayerListener(roomSpace, roomController));
-        roomPlayerListenerThread.setDaemon(true);
-        roomPlayerListenerThread.start();
+        listeners = new ListenerRuntime("room " + playerId);
+        listeners.start(new RoomPlayerListener(roomSpace, roomController), "player listener");
 
         if (!GameApplication.isRoomHost) {
-            startGameListenerThread = new Thread(new StartGameListener(stage, roomSpace, application));
-            startGameListenerThread.setDaemon(true);
-            startGameListenerThread.start();
+            listeners.start(new StartGameListener(stage, roomSpace, application), "start game listener");
         }
 
         Button lobbyButton = (Button) roomLayout.lookup("#lobbyButton");
@@ -120,24 +92,10 @@ public class Room {
         lobbyButton.setOnAction(e -> {
             try {
                 System.out.println("Leaving room");
-                if (!GameApplication.isRoomHost) {
-                    startGameListenerThread.interrupt();
-                }
-                roomPlayerListenerThread.interrupt();
-                ArrayList<String> playerNames = (ArrayList<String>) roomSpace.get(new ActualField("playerNameList"), new FormalField(ArrayList.class))[1];
-                playerNames.remove(name);
-                roomSpace.put("playerNameList", playerNames);
-
-                ArrayListInt playerIds = (ArrayListInt) roomSpace.get(new ActualField("playerIdList"), new FormalField(ArrayListInt.class))[1];
-                playerIds.remove(Integer.valueOf(playerId));
-                roomSpace.put("playerIdList", playerIds);
-
-                String ip = (String) roomSpace.query(new ActualField("room ip"), new FormalField(String.class))[1];
-                Object[] obj = Lobby.lobbySpace.get(new ActualField("room"), new ActualField(ip), new FormalField(String.class), new FormalField(Integer.class));
-                Lobby.lobbySpace.put(obj[0], obj[1], obj[2], (Integer) obj[3] - 1);
-
-                ChatBoxViewController chatboxController = chatboxLoader.getController();
-                chatboxController.chatClient.closeClient();
+                String address = (String) roomSpace.query(new ActualField("room address"), new FormalField(String.class))[1];
+                close();
+                RoomMembers.leave(roomSpace, playerId, name);
+                RoomDirectory.changePlayers(Lobby.lobbySpace, address, -1);
 
                 stage.setScene(GameApplication.lobbyScene);
             } catch (InterruptedException ex) {
@@ -158,24 +116,35 @@ public class Room {
         roomController.setRoomNameText(hostName);
 
         roomLayout.setRight(chatbox);
-        roomScene = new Scene(roomLayout, application.WINDOW_WIDTH, application.WINDOW_HEIGHT);
+        roomScene = new Scene(roomLayout, GameApplication.WINDOW_WIDTH, GameApplication.WINDOW_HEIGHT);
     }
 
-    private void populateChatBoxConstructor(String uri, int players, String name) {
-        ArrayList arrayData = new ArrayList();
-        arrayData.add(uri);
-        arrayData.add(playerId);
-        arrayData.add(name);
+    // Stops listening to the room when leaving it. Stopping waits for listeners blocked on the
+    // remote room space, so it is done on its own thread instead of freezing the FX thread the lobby button runs on
+    private void close() {
+        Thread closer = new Thread(() -> {
+            try {
+                listeners.stop();
+                ChatBoxViewController chatboxController = chatboxLoader.getController();
+                chatboxController.chatClient.closeClient();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        }, "room " + playerId + " close");
+        closer.setDaemon(true);
+        closer.start();
+    }
 
-        ObservableList<String> data = FXCollections.observableArrayList(arrayData);
+    private void populateChatBoxConstructor(String uri, int players, String name) {
+        ObservableList<Object> data = FXCollections.observableArrayList(uri, playerId, name);
         chatboxLoader.setControllerFactory(new Callback<Class<?>, Object>() {
             @Override
             public Object call(Class<?> param) {
                 if (param == ChatBoxViewController.class) {
-                    return new ChatBoxViewController(data, playerIds);
+                    return new ChatBoxViewController(data);
                 } else
                     try {
-                        return param.newInstance();
+                        return param.getDeclaredConstructor().newInstance();
                     } catch (Exception e) {
                         e.printStackTrace();
                         throw new RuntimeException(e);
@@ -188,24 +157,24 @@ public class Room {
         return name;
     }
 
-    public String getIp() {
-        return ip;
+    public String getAddress() {
+        return address;
     }
 
-    // Two rooms are equal if they have the same id, ip, name and number of players
+    // Two rooms are equal if they have the same address, name and number of players
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Room room = (Room) o;
-        return Objects.equals(ip, room.ip) &&
+        return Objects.equals(address, room.address) &&
                 Objects.equals(name, room.name) &&
                 numberOfPlayers == room.numberOfPlayers;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(ip, name, numberOfPlayers);
+        return Objects.hash(address, name, numberOfPlayers);
     }
 
     public int getNumberOfPlayers() {
@@ -45,7 +45,7 @@ public class RoomCell extends ListCell<Room> {
         }
         else {
             roomName.setText(item.getName());
-            ipAddress.setText(item.getIp());
+            ipAddress.setText(item.getAddress());
             int numberOfPlayers = item.getNumberOfPlayers();
             roomCapacity.setText(numberOfPlayers + " / 4");
 
@@ -0,0 +1,71 @@
+package application;
+
+import org.jspace.ActualField;
+import org.jspace.FormalField;
+import org.jspace.Space;
+
+// The rooms visible from the lobby, kept in the lobby space as ("room", address, name, players) tuples.
+// Every change bumps ("rooms version", version) and appends ("room event", version, address, name, players), with
+// players = REMOVED for a room that is gone. Clients read the rooms once and then follow the events, see RoomListListener.
+// Taking the version tuple is the lock for changing the rooms, so versions are never skipped or reused.
+public class RoomDirectory {
+    public static final int REMOVED = -1;
+    // events older than this are removed, a client following the events never falls this far behind
+    private static final int HISTORY = 256;
+
+    public static void create(Space lobbySpace) throws InterruptedException {
+        lobbySpace.put("rooms version", 0);
+    }
+
+    public static void addRoom(Space lobbySpace, String address, String name, int players) throws InterruptedException {
+        int version = lock(lobbySpace);
+        lobbySpace.put("room", address, name, players);
+        unlock(lobbySpace, version, address, name, players);
+    }
+
+    public static void changePlayers(Space lobbySpace, String address, int change) throws InterruptedException {
+        int version = lock(lobbySpace);
+        Object[] room = lobbySpace.getp(new ActualField("room"), new ActualField(address), new FormalField(String.class), new FormalField(Integer.class));
+
+        if (room == null) { // the game has started
+            lobbySpace.put("rooms version", version);
+            return;
+        }
+
+        String name = (String) room[2];
+        int players = (int) room[3] + change;
+        lobbySpace.put("room", address, name, players);
+        unlock(lobbySpace, version, address, name, players);
+    }
+
+    public static void removeRoom(Space lobbySpace, String address) throws InterruptedException {
+        int version = lock(lobbySpace);
+        Object[] room = lobbySpace.getp(new ActualField("room"), new ActualField(address), new FormalField(String.class), new FormalField(Integer.class));
+
+        if (room == null) {
+            lobbySpace.put("rooms version", version);
+            return;
+        }
+
+        unlock(lobbySpace, version, address, (String) room[2], REMOVED);
+    }
+
+    public static int version(Space lobbySpace) throws InterruptedException {
+        return (int) lobbySpace.query(new ActualField("rooms version"), new FormalField(Integer.class))[1];
+    }
+
+    // blocks until the event of the given version exists
+    public static Object[] event(Space lobbySpace, int version) throws InterruptedException {
+        return lobbySpace.query(new ActualField("room event"), new ActualField(version), new FormalField(String.class), new FormalField(String.class), new FormalField(Integer.class));
+    }
+
+    private static int lock(Space lobbySpace) throws InterruptedException {
+        return (int) lobbySpace.get(new ActualField("rooms version"), new FormalField(Integer.class))[1];
+    }
+
+    private static void unlock(Space lobbySpace, int version, String address, String name, int players) throws InterruptedException {
+        lobbySpace.put("room event", version + 1, address, name, players);
+        lobbySpace.getp(new ActualField("room event"), new ActualField(version + 1 - HISTORY), new FormalField(String.class), new FormalField(String.class), new FormalField(Integer.class));
+        lobbySpace.put("rooms version", version + 1);
+    }
+}
@@ -0,0 +1,89 @@
+package application;
+
+import datatypes.ArrayListInt;
+import org.jspace.ActualField;
+import org.jspace.FormalField;
+import org.jspace.Space;
+
+import java.util.ArrayList;
+
+// The players in a room, kept in the room space as the ("playerNameList", names) and ("playerIdList", ids) tuples.
+// Every join or leave bumps ("members version", version) and appends ("member event", version, id, name, joined),
+// clients read the players once and then follow the events, see RoomPlayerListener.
+// Taking the version tuple is the lock for changing the players, like in RoomDirectory.
+public class RoomMembers {
+    // events older than this are removed, a client following the events never falls this far behind
+    private static final int HISTORY = 64;
+
+    public static void create(Space roomSpace) throws InterruptedException {
+        roomSpace.put("playerNameList", new ArrayList<String>());
+        roomSpace.put("playerIdList", new ArrayListInt());
+        roomSpace.put("members version", 0);
+    }
+
+    public static void join(Space roomSpace, int playerID, String name) throws InterruptedException {
+        change(roomSpace, playerID, name, true);
+    }
+
+    public static void leave(Space roomSpace, int playerID, String name) throws InterruptedException {
+        change(roomSpace, playerID, name, false);
+    }
+
+    // the players at the returned version, names are added to playerNames and ids to playerIDs
+    public static int read(Space roomSpace, ArrayList<String> playerNames, ArrayListInt playerIDs) throws InterruptedException {
+        int version = lock(roomSpace);
+        playerNames.addAll(names(roomSpace.query(new ActualField("playerNameList"), new FormalField(ArrayList.class))));
+        playerIDs.addAll((ArrayListInt) roomSpace.query(new ActualField("playerIdList"), new FormalField(ArrayListInt.class))[1]);
+        roomSpace.put("members version", version);
+        return version;
+    }
+
+    // the names of a ("playerNameList", names) tuple. A tuple field only has its raw type, so the names are copied
+    // into a typed list instead of casting the list
+    public static ArrayList<String> names(Object[] tuple) {
+        ArrayList<String> names = new ArrayList<>();
+
+        for (Object name : (ArrayList<?>) tuple[1])
+            names.add((String) name);
+
+        return names;
+    }
+
+    // blocks until the event of the given version exists
+    public static Object[] event(Space roomSpace, int version) throws InterruptedException {
+        return roomSpace.query(new ActualField("member event"), new ActualField(version), new FormalField(Integer.class), new FormalField(String.class), new FormalField(Boolean.class));
+    }
+
+    private static void change(Space roomSpace, int playerID, String name, boolean joined) throws InterruptedException {
+        int version = lock(roomSpace);
+        ArrayList<String> playerNames = names(roomSpace.get(new ActualField("playerNameList"), new FormalField(ArrayList.class)));
+        ArrayListInt playerIDs = (ArrayListInt) roomSpace.get(new ActualField("playerIdList"), new FormalField(ArrayListInt.class))[1];
+
+        if (joined) {
+            playerNames.add(name);
+            playerIDs.add(playerID);
+        } else {
+            int index = playerIDs.indexOf(playerID);
+
+            if (index < 0) { // already left
+                roomSpace.put("playerNameList", playerNames);
+                roomSpace.put("playerIdList", playerIDs);
+                roomSpace.put("members version", version);
+                return;
+            }
+
+            playerNames.remove(index);
+            playerIDs.remove(index);
+        }
+
+        roomSpace.put("playerNameList", playerNames);
+        roomSpace.put("playerIdList", playerIDs);
+        roomSpace.put("member event", version + 1, playerID, name, joined);
+        roomSpace.getp(new ActualField("member event"), new ActualField(version + 1 - HISTORY), new FormalField(Integer.class), new FormalField(String.class), new FormalField(Boolean.class));
+        roomSpace.put("members version", version + 1);
+    }
+
+    private static int lock(Space roomSpace) throws InterruptedException {
+        return (int) roomSpace.get(new ActualField("members version"), new FormalField(Integer.class))[1];
+    }
+}
@@ -0,0 +1,27 @@
+package application;
+
+import org.jspace.Space;
+
+// The tuples a room space starts with. A room is hosted by the player who created it, or by a dedicated server,
+// see server.DedicatedServer. Either way clients only see the room and game spaces through these tuples:
+// ("room address", address) the room in the lobby, see RoomDirectory, e.g. 10.0.0.2:9001/room
+// ("clientUri", uri) the room space and ("game uri", uri) the space the room's games are played in
+public class RoomSpace {
+
+    public static void create(Space roomSpace, String address, String gameUri, int hostID) throws InterruptedException {
+        RoomMembers.create(roomSpace);
+        roomSpace.put("clientUri", uri(address));
+        roomSpace.put("room address", address);
+        roomSpace.put("game uri", gameUri);
+        roomSpace.put("hostID", hostID);
+        roomSpace.put("chat seq", 0);
+    }
+
+    public static String address(String ip, String spaceName) {
+        return ip + GameApplication.PORT + "/" + spaceName;
+    }
+
+    public static String uri(String address) {
+        return GameApplication.PROTOCOL + address + "?keep";
+    }
+}
@@ -0,0 +1,156 @@
+package broadcasters;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Sends broadcasts to the game space from one thread, in the order they were submitted.
+// Broadcasts submitted with a key replace a waiting broadcast with the same key, so e.g. only the latest position
+// of a player is waiting to be sent. The queue is bounded: broadcasts are submitted from the FX thread, so a broadcast
+// submitted to a full queue is dropped and counted instead of blocking until a slow game space catches up.
+public class BroadcastSender implements Runnable {
+    private static final int CAPACITY = 256;
+
+    private final BlockingQueue<Entry> queue = new ArrayBlockingQueue<>(CAPACITY);
+    private final ConcurrentHashMap<Object, Runnable> latest = new ConcurrentHashMap<>();
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    // metrics
+    private final AtomicLong submitted = new AtomicLong(), coalesced = new AtomicLong(), dropped = new AtomicLong();
+    private long sent, totalLatency, maxLatency; // ns, only written by the sender thread
+    private volatile int maxQueueDepth;
+
+    public BroadcastSender(String name) {
+        thread = new Thread(this, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void send(Runnable broadcast) {
+        submitted.incrementAndGet();
+        enqueue(new Entry(null, broadcast));
+    }
+
+    public void sendLatest(Object key, Runnable broadcast) {
+        submitted.incrementAndGet();
+
+        if (latest.put(key, broadcast) != null) {
+            coalesced.incrementAndGet();
+            return;
+        }
+
+        // Nothing is queued to send it when the queue is full, so it is removed and the next one with this key is
+        // queued again. Another thread may have replaced it meanwhile, that broadcast isn't queued either
+        while (!enqueue(new Entry(key, null))) {
+            if (latest.remove(key, broadcast))
+                return;
+
+            broadcast = latest.get(key);
+
+            if (broadcast == null)
+                return;
+        }
+    }
+
+    // waits until everything submitted before has been sent, a flush is never dropped but waits for room in the queue
+    public void flush() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        queue.put(new Entry(null, latch::countDown));
+        latch.await();
+    }
+
+    public void stop() {
+        running = false;
+        thread.interrupt();
+    }
+
+    // returns whether the entry was queued, a full queue drops it
+    private boolean enqueue(Entry entry) {
+        if (!queue.offer(entry)) {
+            dropped.incrementAndGet();
+            return false;
+        }
+
+        maxQueueDepth = Math.max(maxQueueDepth, queue.size());
+        return true;
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                Entry entry = queue.take();
+                Runnable broadcast = (entry.key == null ? entry.broadcast : latest.remove(entry.key));
+
+                if (broadcast == null)
+                    continue;
+
+                try {
+                    broadcast.run();
+                } catch (RuntimeException e) {
+                    if (!running)
+                        break;
+
+                    e.printStackTrace();
+                }
+
+                long latency = System.nanoTime() - entry.enqueued;
+                synchronized (this) {
+                    sent++;
+                    totalLatency += latency;
+                    maxLatency = Math.max(maxLatency, latency);
+                }
+            }
+        } catch (InterruptedException ignored) {
+        }
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public int getMaxQueueDepth() {
+        return maxQueueDepth;
+    }
+
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public synchronized long getSent() {
+        return sent;
+    }
+
+    // from submitting to done sending, in ms
+    public synchronized double getAverageSendLatency() {
+        return sent == 0 ? 0 : totalLatency / 1e6 / sent;
+    }
+
+    public synchronized double getMaxSendLatency() {
+        return maxLatency / 1e6;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: submitted %d, sent %d, coalesced %d, dropped %d, queue depth %d (max %d), send latency avg %.2f ms (max %.2f ms)",
+                thread.getName(), submitted.get(), getSent(), getCoalesced(), getDropped(), getQueueDepth(), getMaxQueueDepth(), getAverageSendLatency(), getMaxSendLatency());
+    }
+
+    private static class Entry {
+        final Object key;
+        final Runnable broadcast;
+        final long enqueued = System.nanoTime();
+
+        Entry(Object key, Runnable broadcast) {
+            this.key = key;
+            this.broadcast = broadcast;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package broadcasters;
+
+import application.Game;
+
+// The keys pressed from the client's tick on, the number of shots fired so far and the client's round trip in ticks,
+// sent to the host when it is authoritative
+public class InputBroadcaster implements Runnable {
+    private Game game;
+    private int tick, keysPressed, shotsFired, roundTrip, round;
+
+    public InputBroadcaster(Game game, int tick, int keysPressed, int shotsFired, int roundTrip) {
+        this.game = game;
+        this.tick = tick;
+        this.roundTrip = roundTrip;
+        this.keysPressed = keysPressed;
+        this.shotsFired = shotsFired;
+        round = game.getRound();
+    }
+
+    @Override
+    public void run() {
+        try {
+            game.gameSpace.put("input", game.MY_PLAYER_ID, tick, keysPressed, shotsFired, roundTrip, round);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
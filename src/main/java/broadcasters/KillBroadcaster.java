@@ -4,19 +4,20 @@ import application.Game;
 
 public class KillBroadcaster implements Runnable {
     private Game game;
-    private int playerID, shotID;
+    private int playerID, shotID, round;
 
     public KillBroadcaster(Game game, int playerID, int shotID) {
         this.game = game;
         this.playerID = playerID;
         this.shotID = shotID;
+        round = game.getRound();
     }
 
     @Override
     public void run() {
         try {
             for (int toPlayerID : game.playersIdNameMap.keySet())
-                game.gameSpace.put("kill", toPlayerID, playerID, shotID);
+                game.gameSpace.put("kill", toPlayerID, playerID, shotID, round);
         } catch (InterruptedException e) {
             throw new RuntimeException(e);
         }
@@ -2,34 +2,45 @@ package broadcasters;
 
 import application.Game;
 import controllers.MovementController;
+import model.PositionCodec;
 import org.jspace.ActualField;
 import org.jspace.FormalField;
 
+// Publishes own position as ("position", playerID, keyFrame, number, update, round), numbered from 0 each round, with
+// the number of the key frame the update follows, see PositionCodec. One tuple per update is read by every opponent, see
+// MovementListener. Every update is a delta to the one before, so they are kept until two key frames have followed them
 public class PlayerPositionBroadcaster implements Runnable {
     private Game game;
-    private MovementController movementController;
+    private double x, y, rot;
+    private int keysPressed, round;
+    private long sendTime; // ms, for the receivers' jitter buffers
+    private PositionCodec positionEncoder;
 
+    // the position is read when the broadcaster is created, on the thread running the simulation
     public PlayerPositionBroadcaster(Game game, MovementController movementController) {
         this.game = game;
-        this.movementController = movementController;
+
+        int slot = game.world.slot(game.MY_PLAYER_ID);
+        x = game.world.tractorX[slot];
+        y = game.world.tractorY[slot];
+        rot = game.world.tractorRotation[slot];
+        keysPressed = game.world.keys[slot];
+        sendTime = System.currentTimeMillis();
+        positionEncoder = movementController.positionEncoder;
+        round = game.getRound();
     }
 
     @Override
     public void run() {
         try {
-            // remove all previous position tuples
-            game.gameSpace.getAll(new ActualField("player position"), new ActualField(game.MY_PLAYER_ID), new FormalField(Integer.class), new FormalField(Double.class), new FormalField(Double.class), new FormalField(Double.class), new FormalField(Integer.class));
-
-            // create bitmask for keys pressed ... up, down, left, right
-            int keysPressed = 0;
-            if (movementController.upPressed.get()) keysPressed |= (1 << 0);
-            if (movementController.downPressed.get()) keysPressed |= (1 << 1);
-            if (movementController.leftPressed.get()) keysPressed |= (1 << 2);
-            if (movementController.rightPressed.get()) keysPressed |= (1 << 3);
+            int number = positionEncoder.updates();
+            int keyFrame = PositionCodec.keyFrame(number);
+            byte[] update = positionEncoder.encode(sendTime, x, y, rot, keysPressed);
+            game.gameSpace.put("position", game.MY_PLAYER_ID, keyFrame, number, update, round);
 
-            for (int playerID : game.playersIdNameMap.keySet())
-                if (playerID != game.MY_PLAYER_ID)
-                    game.gameSpace.put("player position", game.MY_PLAYER_ID, playerID, game.myTractor.getLayoutX(), game.myTractor.getLayoutY(), game.myTractor.getRotate(), keysPressed);
+            // the updates before the last key frame but one are superseded, they are removed by their key frame
+            if (number == keyFrame && keyFrame >= 2 * PositionCodec.KEY_FRAME_INTERVAL)
+                game.gameSpace.getAll(new ActualField("position"), new ActualField(game.MY_PLAYER_ID), new ActualField(keyFrame - 2 * PositionCodec.KEY_FRAME_INTERVAL), new FormalField(Integer.class), new FormalField(byte[].class), new ActualField(round));
         } catch (InterruptedException e) {
             throw new RuntimeException(e);
         }
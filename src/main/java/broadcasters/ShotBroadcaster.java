@@ -4,7 +4,7 @@ import application.Game;
 
 public class ShotBroadcaster implements Runnable {
     private Game game;
-    private int fromPlayerID, shotID;
+    private int fromPlayerID, shotID, round;
     private double x, y, rot;
 
     public ShotBroadcaster(Game game, int fromPlayerID, int shotID, double x, double y, double rot) {
@@ -14,13 +14,14 @@ public class ShotBroadcaster implements Runnable {
         this.x = x;
         this.y = y;
         this.rot = rot;
+        round = game.getRound();
     }
 
     @Override
     public void run() {
         try {
             for (int toPlayerID : game.playersIdNameMap.keySet())
-                game.gameSpace.put("new shot", fromPlayerID, toPlayerID, shotID, x, y, rot);
+                game.gameSpace.put("new shot", fromPlayerID, toPlayerID, shotID, x, y, rot, round);
         } catch (InterruptedException e) {
             throw new RuntimeException(e);
         }
@@ -0,0 +1,35 @@
+package broadcasters;
+
+import application.Game;
+import model.Snapshot;
+import org.jspace.ActualField;
+import org.jspace.FormalField;
+
+public class SnapshotBroadcaster implements Runnable {
+    private Game game;
+    private Snapshot snapshot;
+    private int round;
+
+    // the world is captured when the broadcaster is created, on the thread running the simulation
+    public SnapshotBroadcaster(Game game, int tick) {
+        this.game = game;
+        snapshot = Snapshot.capture(game.world, tick);
+        round = game.getRound();
+    }
+
+    @Override
+    public void run() {
+        try {
+            // remove the last snapshots if nobody has read them yet, they are outdated now. Only those, a client's
+            // stopped snapshot listener is woken up by a snapshot of tick -1, see Game.spawnPlayers
+            game.gameSpace.getAll(new ActualField("snapshot"), new FormalField(Integer.class), new ActualField(game.snapshotTick), new FormalField(double[].class), new FormalField(int[].class), new FormalField(double[].class), new FormalField(int[].class), new ActualField(round));
+            game.snapshotTick = snapshot.tick;
+
+            for (int playerID : game.playersIdNameMap.keySet())
+                if (playerID != game.MY_PLAYER_ID)
+                    game.gameSpace.put("snapshot", playerID, snapshot.tick, snapshot.tractors, snapshot.tractorStates, snapshot.shots, snapshot.shotStates, round);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -41,11 +41,7 @@ public class GameSceneController {
     }
 
     public void displayGrid(Grid grid) {
-        for (var wall : grid.horizontalWalls)
-            gamePane.getChildren().add(wall);
-
-        for (var wall : grid.verticalWalls)
-            gamePane.getChildren().add(wall);
+        gamePane.getChildren().addAll(grid.createWallRectangles());
     }
 
     public void displayPlayersNameAndScore(Map<Integer, String> playerNames, Map<Integer, Integer> playerScores) {
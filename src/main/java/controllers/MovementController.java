@@ -1,82 +1,159 @@
 package controllers;
 
+import broadcasters.InputBroadcaster;
 import broadcasters.PlayerPositionBroadcaster;
 import application.Game;
-import javafx.animation.AnimationTimer;
-import javafx.beans.binding.BooleanBinding;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.SimpleBooleanProperty;
-import javafx.scene.shape.Rectangle;
+import model.JitterBuffer;
+import model.PositionCodec;
+import model.Snapshot;
+import model.World;
+import physics.DeadReckoning;
+import physics.Prediction;
 
 public class MovementController {
-    public static final int MAX_DELAY = 50;
+    // enemy tractors are shown this many ms in the past, so a late position has usually arrived by the time it is needed
+    public static final int INTERPOLATION_DELAY = Integer.getInteger("interpolationDelay", 100);
     public final BooleanProperty upPressed = new SimpleBooleanProperty();
     public final BooleanProperty downPressed = new SimpleBooleanProperty();
     public final BooleanProperty leftPressed = new SimpleBooleanProperty();
     public final BooleanProperty rightPressed = new SimpleBooleanProperty();
 
-    private final BooleanBinding keyPressed = upPressed.or(downPressed).or(leftPressed).or(rightPressed);
-
-    public static final double MOVEMENT_SPEED = 1.9, ROTATION_SPEED = 4.2;
     private final Game game;
-    public final Rectangle myTractor;
-    private Long lastBroadcast;
+    private final DeadReckoning deadReckoning; // decides when own position is sent
+    public final PositionCodec positionEncoder = new PositionCodec(); // own positions, used on the broadcast sender's thread
+    private final JitterBuffer[] remotePositions; // per slot, the positions of an enemy tractor received so far
+
+    private final int[] remoteShotsFired; // per slot, on the host when it is authoritative
+    private final Prediction prediction; // own tractor of a client of an authoritative host
+    private int roundTrip; // ticks, from sending input until a snapshot including it arrives or, between peers, to the game space and back
+    private int sentKeys = -1, sentShotsFired; // last input sent to the host
 
     public MovementController(Game game) {
         this.game = game;
-        myTractor = game.myTractor;
+        remotePositions = new JitterBuffer[game.world.numTractors];
+        for (int slot = 0; slot < remotePositions.length; slot++)
+            remotePositions[slot] = new JitterBuffer();
+        remoteShotsFired = new int[game.world.numTractors];
+        deadReckoning = new DeadReckoning(game.grid, game.simulation.tickRate);
+        prediction = new Prediction(game.simulation);
+    }
+
+    // create bitmask for keys pressed ... up, down, left, right
+    public int getKeysPressed() {
+        int keysPressed = 0;
+        if (upPressed.get()) keysPressed |= (1 << 0);
+        if (downPressed.get()) keysPressed |= (1 << 1);
+        if (leftPressed.get()) keysPressed |= (1 << 2);
+        if (rightPressed.get()) keysPressed |= (1 << 3);
+        return keysPressed;
+    }
+
+    // Called by the game loop once per tick: move own tractor by the keys pressed and enemy tractors to where they were
+    // INTERPOLATION_DELAY ago. With movement prediction an enemy tractor keeps moving by its keys between its updates.
+    // When the host is authoritative it moves every tractor by its player's keys, and clients only send their input
+    public void tick() {
+        World world = game.world;
+        long time = System.currentTimeMillis();
 
-        keyPressed.addListener(((observableValue, aBoolean, t1) -> {
-            if (!aBoolean) timer.start();
-            else timer.stop();
-        }));
+        if (game.authoritative && !game.isHost) {
+            predict();
+            return;
+        }
+
+        for (int slot = 0; slot < world.numTractors; slot++) {
+            if (!world.alive[slot])
+                continue;
+
+            if (world.playerIDs[slot] == game.MY_PLAYER_ID) {
+                world.keys[slot] = getKeysPressed();
+
+                game.simulation.applyKeys(slot, world.keys[slot]);
 
-        lastBroadcast = System.currentTimeMillis();
+                if (!game.authoritative && deadReckoning.tick(world, slot, roundTrip))
+                    broadcastPosition();
+            } else if (game.authoritative) {
+                game.simulation.applyKeys(slot, world.keys[slot]);
+                world.inputTicks[slot]++;
+            } else {
+                remotePositions[slot].sample(time - INTERPOLATION_DELAY, game.movementPrediction, game.simulation, slot);
+            }
+        }
     }
 
-    public AnimationTimer timer = new AnimationTimer() {
-        @Override
-        public void handle(long timestamp) {
-            if (upPressed.get()) move(myTractor, "forwards");
-            if (downPressed.get()) move(myTractor, "backwards");
-            if (leftPressed.get()) rotate(myTractor, "counterclockwise");
-            if (rightPressed.get()) rotate(myTractor, "clockwise");
+    // position and keys of an enemy tractor as received from the network, times are in ms
+    public void setRemoteState(int playerID, double x, double y, double rotation, int keysPressed, long sendTime, long receiveTime) {
+        World world = game.world;
+        int slot = world.slot(playerID);
+
+        if (slot >= 0 && world.alive[slot]) {
+            // the first position is where the tractor spawned, show it right away
+            if (remotePositions[slot].isEmpty())
+                world.setTractor(slot, x, y, rotation);
+
+            remotePositions[slot].add(sendTime, receiveTime, x, y, rotation, keysPressed);
+            world.keys[slot] = keysPressed;
         }
-    };
-
-    public void move(Rectangle tractor, String dir) {
-        double angle = tractor.getRotate() * Math.PI / 180;
-        double dX = Math.cos(angle) * MOVEMENT_SPEED * (dir.equals("forwards") ? 1 : -1);
-        double dY = Math.sin(angle) * MOVEMENT_SPEED * (dir.equals("forwards") ? 1 : -1);
-
-        tractor.setLayoutX(tractor.getLayoutX() + dX);
-        tractor.setLayoutY(tractor.getLayoutY() + dY);
-
-        // naive collision detection - undo movement if colliding with wall
-        if (game.grid.isWallCollision(tractor)) {
-            tractor.setLayoutX(tractor.getLayoutX() - dX);
-            tractor.setLayoutY(tractor.getLayoutY() - dY);
-        } else if (tractor.equals(myTractor) && getLastBroadcastTime() > MAX_DELAY) {
-            lastBroadcast = System.currentTimeMillis();
-            new Thread(new PlayerPositionBroadcaster(game, this)).start();
+    }
+
+    // input of another player as received by the host: the keys pressed from the player's tick on, the number of
+    // shots fired this round and the player's round trip, which is how late the player sees the world
+    public void setRemoteInput(int playerID, int tick, int keysPressed, int shotsFired, int roundTrip) {
+        World world = game.world;
+        int slot = world.slot(playerID);
+
+        if (slot >= 0 && world.alive[slot]) {
+            // the keys are applied from the next tick on, which is the player's tick
+            world.inputTicks[slot] = tick - 1;
+            world.keys[slot] = keysPressed;
+            game.lagCompensation.setViewLag(slot, roundTrip);
+
+            for (; remoteShotsFired[slot] < shotsFired; remoteShotsFired[slot]++)
+                game.shotController.fire(playerID);
         }
     }
 
-    public void rotate(Rectangle tractor, String dir) {
-        double dAngle = ROTATION_SPEED * (dir.equals("clockwise") ? 1 : -1);
-        tractor.setRotate(tractor.getRotate() + dAngle);
+    // Moves own tractor by the keys pressed without waiting for the host, input is only sent when it changes. Every
+    // change is sent in order, the host needs each press and release to simulate the same ticks
+    private void predict() {
+        World world = game.world;
+        int slot = world.slot(game.MY_PLAYER_ID);
+        int keysPressed = world.alive[slot] ? getKeysPressed() : 0;
+        int shotsFired = game.shotController.getShotsFired();
+        int tick = prediction.predict(slot, keysPressed);
 
-        if (game.grid.isWallCollision(tractor)) {
-            tractor.setRotate(tractor.getRotate() - dAngle); // undo rotation
-        } else if (tractor.equals(myTractor) && getLastBroadcastTime() > MAX_DELAY) {
-            lastBroadcast = System.currentTimeMillis();
-            new Thread(new PlayerPositionBroadcaster(game, this)).start();
+        if (keysPressed != sentKeys || shotsFired != sentShotsFired) {
+            sentKeys = keysPressed;
+            sentShotsFired = shotsFired;
+            game.broadcastSender.send(new InputBroadcaster(game, tick, keysPressed, shotsFired, roundTrip));
         }
     }
 
-    private long getLastBroadcastTime() {
-        long time = System.currentTimeMillis();
-        long timeDiff = time - lastBroadcast;
-        return timeDiff;
+    // moves own tractor to where the host has it, see Prediction.reconcile
+    public void reconcile(Snapshot snapshot) {
+        World world = game.world;
+        int slot = world.slot(game.MY_PLAYER_ID);
+
+        if (world.alive[slot])
+            roundTrip = prediction.reconcile(snapshot, slot);
+    }
+
+    public void move(int playerID, String dir) {
+        game.simulation.move(game.world.slot(playerID), dir.equals("forwards"));
+    }
+
+    public void rotate(int playerID, String dir) {
+        game.simulation.rotate(game.world.slot(playerID), dir.equals("clockwise"));
+    }
+
+    public void broadcastPosition() {
+        deadReckoning.sent(game.world, game.world.slot(game.MY_PLAYER_ID));
+        game.broadcastSender.sendLatest(PlayerPositionBroadcaster.class, new PlayerPositionBroadcaster(game, this));
+    }
+
+    // round trip to the game space between peers, measured by RoundTripProbe
+    public void setRoundTrip(int ticks) {
+        roundTrip = ticks;
     }
 }
@@ -40,6 +40,14 @@ public class RoomSceneViewController {
         Platform.runLater(() -> playerList.getItems().setAll(observableList));
     }
 
+    public void addPlayer(String name) {
+        Platform.runLater(() -> playerList.getItems().add(name));
+    }
+
+    public void removePlayer(int index) {
+        Platform.runLater(() -> playerList.getItems().remove(index));
+    }
+
     public void setRoomNameText(String name) {
         roomNameText.setText(name + "'s room");
     }
@@ -4,27 +4,21 @@ import application.*;
 import broadcasters.KillBroadcaster;
 import broadcasters.ShotBroadcaster;
 import javafx.animation.AnimationTimer;
-import javafx.animation.PauseTransition;
-import javafx.application.Platform;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.SimpleBooleanProperty;
-import javafx.geometry.Bounds;
 import javafx.scene.layout.Pane;
-import javafx.scene.shape.Rectangle;
-import javafx.util.Duration;
-import org.jspace.ActualField;
-import org.jspace.FormalField;
+import model.World;
+import physics.Simulation;
 
-import java.util.Map;
+import static physics.Simulation.SHOT_RADIUS;
+import static physics.Simulation.SHOT_SPEED;
 
 public class ShotController {
 
     public final BooleanProperty spacePressed = new SimpleBooleanProperty();
-    private static final double SHOT_RADIUS = 4.;
-    private static final double SHOT_DISTANCE_FROM_TRACTOR_CENTER = Game.PLAYER_WIDTH / 2 + SHOT_RADIUS;
-    private static final int MAX_ACTIVE_SHOTS = 6;
-    private static final int SHOT_SPEED = 3;
     private int ownNumShots;
+    private final int[] shotSequences; // per slot
+    private int shotsFired; // by this player, when the host is authoritative
     private Pane gamePane;
     private Game game;
 
@@ -32,6 +26,7 @@ public class ShotController {
         this.game = game;
         gamePane = game.gamePane;
         ownNumShots = 0;
+        shotSequences = new int[game.world.numTractors];
 
         spacePressed.addListener((((observableValue, aBoolean, t1) -> {
             if (!aBoolean) timer.start();
@@ -42,106 +37,142 @@ public class ShotController {
     AnimationTimer timer = new AnimationTimer() {
         @Override
         public void handle(long timestamp) {
-            if (spacePressed.get() && ownNumShots < MAX_ACTIVE_SHOTS) {
+            if (spacePressed.get() && game.authoritative) {
+                spacePressed.set(false);
+
+                if (game.isHost)
+                    fire(game.MY_PLAYER_ID);
+                else
+                    shotsFired++; // sent to the host with the input, see MovementController
+            } else if (spacePressed.get() && ownNumShots < Simulation.MAX_ACTIVE_SHOTS) {
                 ownNumShots++;
                 spacePressed.set(false);
 
-                // Place shot in front of tractor
-                Bounds bounds = game.myTractor.getBoundsInParent();
+                World world = game.world;
+                int slot = world.slot(game.MY_PLAYER_ID);
+                int shotID = Simulation.shotID(game.MY_PLAYER_ID, shotSequences[slot]++);
+                game.broadcastSender.send(new ShotBroadcaster(game, game.MY_PLAYER_ID, shotID, game.simulation.shotX(slot), game.simulation.shotY(slot), world.tractorRotation[slot]));
+            }
+        }
+    };
 
-                double angleInDegrees = game.myTractor.getRotate();
-                double angleInRadians = angleInDegrees * Math.PI / 180;
-                double x = bounds.getCenterX() + Math.cos(angleInRadians) * SHOT_DISTANCE_FROM_TRACTOR_CENTER;
-                double y = bounds.getCenterY() + Math.sin(angleInRadians) * SHOT_DISTANCE_FROM_TRACTOR_CENTER;
+    // Fires a shot from the player's tractor on the host, when it is authoritative
+    public void fire(int playerID) {
+        int slot = game.world.slot(playerID);
 
-                int shotID;
+        if (slot < 0)
+            return;
 
-                try {
-                    shotID = (int) game.gameSpace.get(new ActualField("shot id"), new FormalField(Integer.class))[1];
-                    game.gameSpace.put("shot id", shotID + 1);
-                } catch (InterruptedException e) {
-                    throw new RuntimeException(e);
-                }
+        int shotID = Simulation.shotID(playerID, shotSequences[slot]);
+        int index = game.simulation.fire(slot, shotID);
 
-                new Thread(new ShotBroadcaster(game, game.MY_PLAYER_ID, shotID, x, y, angleInDegrees)).start();
-            }
-        }
-    };
+        if (index == -1)
+            return;
+
+        shotSequences[slot]++;
+        addShotNode(index);
+
+        // if a player shoots directly into a wall, they die immediately
+        if (game.simulation.isShotWallCollision(index))
+            game.broadcastSender.send(new KillBroadcaster(game, playerID, shotID));
+    }
+
+    public int getShotsFired() {
+        return shotsFired;
+    }
+
+    // adds the shot to the world and displays it, returns its index in the world or -1 if there is no room for it
+    public int shoot(double x, double y, double angleInDegrees, int playerID, int shotID) {
+        int index = game.world.addShot(shotID, playerID, x, y, angleInDegrees, SHOT_SPEED, game.simulation.shotLifetimeTicks);
+
+        if (index == -1)
+            return -1;
+
+        addShotNode(index);
+        return index;
+    }
 
-    public Shot shoot(double x, double y, double angleInDegrees, int playerID, int shotID) {
-        Shot shot = new Shot(SHOT_RADIUS, playerID, shotID);
-        shot.setLayoutX(x);
-        shot.setLayoutY(y);
-        shot.setRotate(angleInDegrees);
-        Platform.runLater(() -> gamePane.getChildren().add(shot));
+    // Creates and removes shot nodes to match the shots in the world, after a snapshot from the host
+    public void updateShotNodes() {
+        World world = game.world;
 
-        shot.setTimer(updateShotTimer(shot));
-        shot.getTimer().start();
+        game.shots.values().removeIf(shot -> {
+            if (world.shotIndex(shot.getShotID()) >= 0)
+                return false;
 
-        // Remove shot after 5s delay
-        shot.setDelay(new PauseTransition(Duration.seconds(5)));
-        shot.getDelay().setOnFinished(e -> {
-            removeShot(shot);
+            gamePane.getChildren().remove(shot);
+            return true;
         });
-        shot.getDelay().play();
 
-        return shot;
+        for (int index = 0; index < world.numShots; index++) {
+            if (!game.shots.containsKey(world.shotIDs[index]))
+                addShotNode(index);
+        }
     }
 
-    public void removeShot(Shot shot) {
-        shot.getDelay().stop();
-        Platform.runLater(() -> gamePane.getChildren().remove(shot));
-        shot.getTimer().stop();
+    private void addShotNode(int index) {
+        World world = game.world;
+        Shot shot = new Shot(SHOT_RADIUS, world.shotPlayerIDs[index], world.shotIDs[index]);
+        shot.setLayoutX(world.shotX[index]);
+        shot.setLayoutY(world.shotY[index]);
+        shot.setRotate(world.shotRotation[index]);
+        game.shots.put(world.shotIDs[index], shot);
+        gamePane.getChildren().add(shot);
+    }
 
-        if (shot.getPlayerID() == game.MY_PLAYER_ID)
-            ownNumShots--;
+    public void removeShot(int shotID) {
+        int index = game.world.shotIndex(shotID);
 
-        game.shots.remove(shot.getShotID());
+        if (index >= 0)
+            removeShotAt(index);
     }
 
-    private AnimationTimer updateShotTimer(Shot shot) {
-        AnimationTimer timer = new AnimationTimer() {
-            @Override
-            public void handle(long now) {
-                updateShot(shot);
-            }
-        };
-        return timer;
+    public void removeAllShots() {
+        while (game.world.numShots > 0)
+            removeShotAt(game.world.numShots - 1);
     }
 
-    public void updateShot(Shot shot) {
-        double angle = shot.getRotate() * Math.PI / 180;
-        double dX = Math.cos(angle) * SHOT_SPEED;
-        double dY = Math.sin(angle) * SHOT_SPEED;
-        shot.setLayoutX(shot.getLayoutX() + dX);
-        shot.setLayoutY(shot.getLayoutY() + dY);
+    private void removeShotAt(int index) {
+        int shotID = game.world.shotIDs[index];
+
+        if (game.world.shotPlayerIDs[index] == game.MY_PLAYER_ID)
+            ownNumShots--;
 
-        // If shot hits a wall change rotation
-        if (game.grid.isWallCollisionHorizontal(shot))
-            shot.setRotate(invertAngleHorizontal(shot.getRotate()));
-        if (game.grid.isWallCollisionVertical(shot))
-            shot.setRotate(invertAngleVertical(shot.getRotate()));
+        game.world.removeShot(index);
+        Shot shot = game.shots.remove(shotID);
 
-        // If a shot hits a tractor, ded
-        if (GameApplication.isRoomHost) {
-            for (Map.Entry<Integer, Rectangle> entry : game.tractors.entrySet()) {
-                Rectangle tractor = entry.getValue();
-
-                if (game.grid.isCollision(shot, tractor)) {
-                    int playerID = entry.getKey();
-                    new Thread(new KillBroadcaster(game, playerID, shot.getShotID())).start();
-                    shot.getTimer().stop();
-                    break;
-                }
+        if (shot != null)
+            gamePane.getChildren().remove(shot);
+    }
+
+    // Advance every shot one tick. Shots are removed by moving the last one into their place,
+    // so going backwards means every shot is visited exactly once
+    public void updateShots() {
+        for (int index = game.world.numShots - 1; index >= 0; index--) {
+            if (game.world.shotHit[index])
+                continue;
+
+            // Remove shot after its lifetime
+            if (--game.world.shotTicksLeft[index] < 0) {
+                removeShotAt(index);
+                continue;
             }
+
+            updateShot(index);
         }
     }
 
-    private double invertAngleVertical(double angle) {
-        return (-1 * angle + 180) % 360;
-    }
+    public void updateShot(int index) {
+        game.simulation.moveShot(index);
 
-    private double invertAngleHorizontal(double angle) {
-        return (-1 * angle);
+        // If a shot hits a tractor, ded
+        if (game.isHost) {
+            int slot = game.simulation.hitTractor(index, game.lagCompensation);
+
+            if (slot >= 0) {
+                game.broadcastSender.send(new KillBroadcaster(game, game.world.playerIDs[slot], game.world.shotIDs[index]));
+                game.world.shotHit[index] = true;
+            }
+        }
     }
 }
@@ -3,4 +3,5 @@ package datatypes;
 import java.util.ArrayList;
 
 public class ArrayListInt extends ArrayList<Integer> {
+    private static final long serialVersionUID = 1L;
 }
@@ -1,5 +0,0 @@
-package datatypes;
-
-import java.util.HashSet;
-
-public class HashSetIntArray extends HashSet<Integer[]> {}
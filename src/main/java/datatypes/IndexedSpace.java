@@ -0,0 +1,367 @@
+package datatypes;
+
+import org.jspace.ActualField;
+import org.jspace.Space;
+import org.jspace.TemplateField;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// A tuple space for the game's tuple patterns: nearly every template starts with an actual tag and looks for actual
+// player IDs, round numbers or sequence numbers in its other fields, like ("new shot", FormalField, ActualField(id), ...).
+// Tuples are kept in buckets by arity and first field. Within a bucket every String, Integer, Long or Boolean field is
+// indexed by its position and value, and a template is answered from the smallest index its actual fields select, so
+// a get only looks at tuples that can match it wherever the recipient is.
+// A blocked get or query waits in the bucket it would match in, and a put hands the tuple straight to the waiting
+// queries and the first waiting get it matches, instead of waking every waiter to scan the space again.
+// Like SequentialSpace, the oldest matching tuple is returned first. A tuple handed to a get that is interrupted before
+// it returns goes back in its place, so tuples from one sender stay in the order they were put. Templates not starting
+// with an actual field are answered by scanning every bucket of their arity.
+// A get or query can also give up after a timeout, for a host that must not wait forever for a player who is gone.
+public class IndexedSpace implements Space {
+    private static final Comparator<Entry> PUT_ORDER = Comparator.comparingLong(entry -> entry.sequence);
+    private static final long NO_TIMEOUT = -1;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Key, Bucket> buckets = new HashMap<>();
+    private final List<Waiter> unindexedWaiters = new ArrayList<>(); // waiting with a template not starting with an actual field
+    private long nextSequence;
+    private int size;
+
+    private static final class Key {
+        final int arity;
+        final Object first;
+
+        Key(int arity, Object first) {
+            this.arity = arity;
+            this.first = first;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && ((Key) o).arity == arity && Objects.equals(((Key) o).first, first);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * arity + Objects.hashCode(first);
+        }
+    }
+
+    private static final class Entry {
+        final Object[] fields;
+        final long sequence; // put order
+
+        Entry(Object[] fields, long sequence) {
+            this.fields = fields;
+            this.sequence = sequence;
+        }
+    }
+
+    private static final class Bucket {
+        final NavigableSet<Entry> all = new TreeSet<>(PUT_ORDER);
+        final List<Map<Object, NavigableSet<Entry>>> byField = new ArrayList<>(); // per position, the first is unused as it is the bucket key
+        final List<Waiter> waiters = new ArrayList<>(); // in arrival order
+
+        Bucket(int arity) {
+            for (int i = 0; i < arity; i++)
+                byField.add(new HashMap<>());
+        }
+    }
+
+    private static final class Waiter {
+        final TemplateField[] template;
+        final boolean remove;
+        final Condition ready;
+        Object[] result;
+        long sequence; // of the result
+
+        Waiter(TemplateField[] template, boolean remove, Condition ready) {
+            this.template = template;
+            this.remove = remove;
+            this.ready = ready;
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean put(Object... fields) {
+        lock.lock();
+        try {
+            add(fields, nextSequence++);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Object[] get(TemplateField... fields) throws InterruptedException {
+        return await(fields, true, NO_TIMEOUT);
+    }
+
+    // like get, but returns null if no tuple matches within the timeout in ms
+    public Object[] get(long timeout, TemplateField... fields) throws InterruptedException {
+        return await(fields, true, TimeUnit.MILLISECONDS.toNanos(timeout));
+    }
+
+    @Override
+    public Object[] getp(TemplateField... fields) {
+        lock.lock();
+        try {
+            Entry entry = find(fields);
+            if (entry == null)
+                return null;
+
+            remove(entry);
+            return entry.fields;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<Object[]> getAll(TemplateField... fields) {
+        lock.lock();
+        try {
+            List<Object[]> tuples = new ArrayList<>();
+            for (Entry entry : findAll(fields)) {
+                remove(entry);
+                tuples.add(entry.fields);
+            }
+            return tuples;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Object[] query(TemplateField... fields) throws InterruptedException {
+        return await(fields, false, NO_TIMEOUT);
+    }
+
+    // like query, but returns null if no tuple matches within the timeout in ms
+    public Object[] query(long timeout, TemplateField... fields) throws InterruptedException {
+        return await(fields, false, TimeUnit.MILLISECONDS.toNanos(timeout));
+    }
+
+    @Override
+    public Object[] queryp(TemplateField... fields) {
+        lock.lock();
+        try {
+            Entry entry = find(fields);
+            return entry == null ? null : entry.fields;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<Object[]> queryAll(TemplateField... fields) {
+        lock.lock();
+        try {
+            List<Object[]> tuples = new ArrayList<>();
+            for (Entry entry : findAll(fields))
+                tuples.add(entry.fields);
+            return tuples;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Object[] await(TemplateField[] template, boolean remove, long timeout) throws InterruptedException {
+        lock.lock();
+        try {
+            Entry entry = find(template);
+
+            if (entry != null) {
+                if (remove)
+                    remove(entry);
+                return entry.fields;
+            }
+
+            Waiter waiter = new Waiter(template, remove, lock.newCondition());
+            List<Waiter> waiters = startsWithActual(template) ? bucket(template.length, value(template[0])).waiters : unindexedWaiters;
+            waiters.add(waiter);
+
+            try {
+                long nanos = timeout;
+
+                while (waiter.result == null) {
+                    if (timeout == NO_TIMEOUT) {
+                        waiter.ready.await();
+                    } else if (nanos <= 0) {
+                        waiters.remove(waiter);
+                        return null;
+                    } else {
+                        nanos = waiter.ready.awaitNanos(nanos);
+                    }
+                }
+            } catch (InterruptedException e) {
+                // a tuple handed over in the meantime goes to the next one waiting for it, or back in its place
+                if (waiter.result == null)
+                    waiters.remove(waiter);
+                else if (remove)
+                    add(waiter.result, waiter.sequence);
+                throw e;
+            }
+
+            return waiter.result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // hands the tuple to the waiting queries it matches and to the first waiting get, or stores it if there is no such get
+    private void add(Object[] fields, long sequence) {
+        Bucket bucket = bucket(fields.length, fields.length > 0 ? fields[0] : null);
+
+        boolean taken = handOver(bucket.waiters, fields, sequence, false);
+        if (handOver(unindexedWaiters, fields, sequence, taken))
+            return;
+
+        Entry entry = new Entry(fields, sequence);
+        bucket.all.add(entry);
+
+        for (int i = 1; i < fields.length; i++) {
+            if (isIndexed(fields[i]))
+                bucket.byField.get(i).computeIfAbsent(fields[i], value -> new TreeSet<>(PUT_ORDER)).add(entry);
+        }
+
+        size++;
+    }
+
+    // every waiting query sees the tuple, and the first waiting get takes it unless one already has. Returns whether
+    // a get took it
+    private static boolean handOver(List<Waiter> waiters, Object[] fields, long sequence, boolean taken) {
+        for (Iterator<Waiter> iterator = waiters.iterator(); iterator.hasNext(); ) {
+            Waiter waiter = iterator.next();
+
+            if ((!taken || !waiter.remove) && matches(waiter.template, fields)) {
+                iterator.remove();
+                waiter.result = fields;
+                waiter.sequence = sequence;
+                waiter.ready.signal();
+                taken |= waiter.remove;
+            }
+        }
+
+        return taken;
+    }
+
+    private void remove(Entry entry) {
+        Object[] fields = entry.fields;
+        Bucket bucket = buckets.get(new Key(fields.length, fields.length > 0 ? fields[0] : null));
+        bucket.all.remove(entry);
+
+        for (int i = 1; i < fields.length; i++) {
+            if (!isIndexed(fields[i]))
+                continue;
+
+            Map<Object, NavigableSet<Entry>> index = bucket.byField.get(i);
+            NavigableSet<Entry> entries = index.get(fields[i]);
+            entries.remove(entry);
+
+            // fields are often versions or sequence numbers, don't keep a set for each one ever seen
+            if (entries.isEmpty())
+                index.remove(fields[i]);
+        }
+
+        size--;
+    }
+
+    private Bucket bucket(int arity, Object first) {
+        return buckets.computeIfAbsent(new Key(arity, first), key -> new Bucket(arity));
+    }
+
+    private Entry find(TemplateField[] template) {
+        for (Entry entry : candidates(template)) {
+            if (matches(template, entry.fields))
+                return entry;
+        }
+
+        return null;
+    }
+
+    private List<Entry> findAll(TemplateField[] template) {
+        List<Entry> entries = new ArrayList<>();
+
+        for (Entry entry : candidates(template)) {
+            if (matches(template, entry.fields))
+                entries.add(entry);
+        }
+
+        return entries;
+    }
+
+    // the tuples that can match the template, in put order
+    private Collection<Entry> candidates(TemplateField[] template) {
+        if (!startsWithActual(template)) {
+            List<Entry> entries = new ArrayList<>();
+            for (Map.Entry<Key, Bucket> bucket : buckets.entrySet()) {
+                if (bucket.getKey().arity == template.length)
+                    entries.addAll(bucket.getValue().all);
+            }
+            entries.sort(PUT_ORDER);
+            return entries;
+        }
+
+        Bucket bucket = buckets.get(new Key(template.length, value(template[0])));
+
+        if (bucket == null)
+            return Collections.emptyList();
+
+        // the fewest tuples selected by any indexed actual field
+        NavigableSet<Entry> smallest = bucket.all;
+
+        for (int i = 1; i < template.length; i++) {
+            if (!(template[i] instanceof ActualField) || !isIndexed(value(template[i])))
+                continue;
+
+            NavigableSet<Entry> entries = bucket.byField.get(i).get(value(template[i]));
+
+            if (entries == null)
+                return Collections.emptyList();
+            if (entries.size() < smallest.size())
+                smallest = entries;
+        }
+
+        return smallest;
+    }
+
+    private static boolean startsWithActual(TemplateField[] template) {
+        return template.length > 0 && template[0] instanceof ActualField;
+    }
+
+    // the field types templates look for, arrays and doubles would only get a set per tuple
+    private static boolean isIndexed(Object value) {
+        return value instanceof String || value instanceof Integer || value instanceof Long || value instanceof Boolean;
+    }
+
+    private static Object value(TemplateField field) {
+        return ((ActualField) field).getValue();
+    }
+
+    private static boolean matches(TemplateField[] template, Object[] fields) {
+        if (template.length != fields.length)
+            return false;
+
+        for (int i = 0; i < fields.length; i++) {
+            if (!template[i].match(fields[i]))
+                return false;
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,111 @@
+package datatypes;
+
+// Walls of a rows x cols maze, one bit per wall: bit set iff the wall is there.
+// Only inner walls are stored - the east walls of all but the last column followed by the south walls of all but the last row.
+// The words array is the serialized form sent in tuples.
+public class MazeWalls {
+    public static final int NORTH = 0, EAST = 1, SOUTH = 2, WEST = 3;
+
+    private int rows, cols;
+    private long[] words;
+
+    // a maze with every wall present
+    public MazeWalls(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        int bits = numWalls();
+        words = new long[(bits + 63) / 64];
+
+        for (int i = 0; i < bits; i++)
+            words[i >>> 6] |= 1L << i;
+    }
+
+    public MazeWalls(int rows, int cols, long[] words) {
+        this.rows = rows;
+        this.cols = cols;
+        this.words = words;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public long[] getWords() {
+        return words;
+    }
+
+    public int numWalls() {
+        return rows * (cols - 1) + (rows - 1) * cols;
+    }
+
+    // walls by index, 0 <= wall < numWalls()
+    public boolean isWall(int wall) {
+        return (words[wall >>> 6] & (1L << wall)) != 0;
+    }
+
+    public void removeWall(int wall) {
+        words[wall >>> 6] &= ~(1L << wall);
+    }
+
+    // true iff there is no wall between square (row, col) and its neighbour in direction dir
+    public boolean isConnected(int row, int col, int dir) {
+        int bit = wallBit(row, col, dir);
+        return bit >= 0 && !isWall(bit);
+    }
+
+    // squares (row1, col1) and (row2, col2) must be neighbours
+    public boolean isConnected(int row1, int col1, int row2, int col2) {
+        return isConnected(row1, col1, direction(row1, col1, row2, col2));
+    }
+
+    // remove the wall between square (row, col) and its neighbour in direction dir
+    public void connect(int row, int col, int dir) {
+        int bit = wallBit(row, col, dir);
+
+        if (bit >= 0)
+            removeWall(bit);
+    }
+
+    public void connect(int row1, int col1, int row2, int col2) {
+        connect(row1, col1, direction(row1, col1, row2, col2));
+    }
+
+    private static int direction(int row1, int col1, int row2, int col2) {
+        if (row2 == row1 - 1 && col2 == col1) return NORTH;
+        if (row2 == row1 && col2 == col1 + 1) return EAST;
+        if (row2 == row1 + 1 && col2 == col1) return SOUTH;
+        if (row2 == row1 && col2 == col1 - 1) return WEST;
+        return -1;
+    }
+
+    // index of the wall bit, or -1 if there is no inner wall in that direction
+    private int wallBit(int row, int col, int dir) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols)
+            return -1;
+
+        switch (dir) {
+            case NORTH:
+                return row > 0 ? southBit(row - 1, col) : -1;
+            case EAST:
+                return col < cols - 1 ? eastBit(row, col) : -1;
+            case SOUTH:
+                return row < rows - 1 ? southBit(row, col) : -1;
+            case WEST:
+                return col > 0 ? eastBit(row, col - 1) : -1;
+            default:
+                return -1;
+        }
+    }
+
+    private int eastBit(int row, int col) {
+        return row * (cols - 1) + col;
+    }
+
+    private int southBit(int row, int col) {
+        return rows * (cols - 1) + row * cols + col;
+    }
+}
@@ -0,0 +1,52 @@
+package listeners;
+
+import application.HostedSpaces;
+import application.RoomDirectory;
+import application.RoomMembers;
+import datatypes.ArrayListInt;
+import org.jspace.ActualField;
+import org.jspace.FormalField;
+import org.jspace.Space;
+
+import java.util.ArrayList;
+
+// Closes a hosted room once the last player has left it, before or during its game: the room is removed from the
+// lobby, the listeners running next to the room are stopped, and the room and game spaces are removed from the
+// repository, which leaves their tuples to the garbage collector
+public class EmptyRoomListener implements Runnable {
+    private Space lobbySpace, roomSpace;
+    private HostedSpaces hostedSpaces;
+    private String roomSpaceName, gameSpaceName;
+    private ListenerRuntime roomListeners;
+
+    public EmptyRoomListener(Space lobbySpace, Space roomSpace, HostedSpaces hostedSpaces, String roomSpaceName, String gameSpaceName, ListenerRuntime roomListeners) {
+        this.lobbySpace = lobbySpace;
+        this.roomSpace = roomSpace;
+        this.hostedSpaces = hostedSpaces;
+        this.roomSpaceName = roomSpaceName;
+        this.gameSpaceName = gameSpaceName;
+        this.roomListeners = roomListeners;
+    }
+
+    @Override
+    public void run() {
+        try {
+            ArrayListInt playerIDs = new ArrayListInt();
+            int version = RoomMembers.read(roomSpace, new ArrayList<>(), playerIDs);
+            int players = playerIDs.size();
+
+            // the room is created empty, it is closed when it is empty again
+            do {
+                Object[] event = RoomMembers.event(roomSpace, ++version);
+                players += (boolean) event[4] ? 1 : -1;
+            } while (players > 0);
+
+            String address = (String) roomSpace.query(new ActualField("room address"), new FormalField(String.class))[1];
+            RoomDirectory.removeRoom(lobbySpace, address);
+            roomListeners.stop();
+            hostedSpaces.remove(roomSpaceName);
+            hostedSpaces.remove(gameSpaceName);
+        } catch (InterruptedException ignored) {
+        }
+    }
+}
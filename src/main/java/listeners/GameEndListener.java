@@ -1,7 +1,8 @@
 package listeners;
 
 import application.Game;
-import application.Shot;
+import javafx.application.Platform;
+import model.World;
 import org.jspace.ActualField;
 
 public class GameEndListener implements Runnable {
@@ -16,22 +17,23 @@ public class GameEndListener implements Runnable {
         try {
             game.gameSpace.get(new ActualField("game end"), new ActualField(game.MY_PLAYER_ID));
 
-            synchronized (game.shotsLock) {
-                while (!game.shots.isEmpty()) {
-                    Shot shot = (Shot) game.shots.values().toArray()[0];
+            Platform.runLater(() -> game.shotController.removeAllShots());
+            game.waitForRunLater();
 
-                    if (shot != null)
-                        game.shotController.removeShot(shot);
-                    else
-                        game.shots.remove(shot.getShotID());
+            World world = game.world;
+            Integer winnerPlayerID = null;
+
+            for (int slot = 0; slot < world.numTractors; slot++) {
+                if (world.alive[slot]) {
+                    winnerPlayerID = world.playerIDs[slot];
+                    break;
                 }
             }
 
-            Integer winnerPlayerID = (game.tractors.isEmpty() ? null : (Integer) game.tractors.keySet().toArray()[0]);
             game.incrementPlayerScore(winnerPlayerID);
             game.newRound();
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
+        } catch (InterruptedException ignored) {
+            // stopped by the round's ListenerRuntime
         }
     }
 }
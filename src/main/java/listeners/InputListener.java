@@ -0,0 +1,36 @@
+package listeners;
+
+import application.Game;
+import javafx.application.Platform;
+import org.jspace.ActualField;
+import org.jspace.FormalField;
+
+// Receives the input of the other players on the host when it is authoritative
+public class InputListener implements Runnable {
+    private Game game;
+
+    public InputListener(Game game) {
+        this.game = game;
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Object[] obj = game.gameSpace.get(new ActualField("input"), new FormalField(Integer.class), new FormalField(Integer.class), new FormalField(Integer.class), new FormalField(Integer.class), new FormalField(Integer.class), new ActualField(game.getRound()));
+                int playerID = (int) obj[1];
+                int tick = (int) obj[2];
+                int keysPressed = (int) obj[3];
+                int shotsFired = (int) obj[4];
+                int roundTrip = (int) obj[5];
+
+                if (Thread.currentThread().isInterrupted())
+                    break; // stopped by the round's ListenerRuntime
+
+                Platform.runLater(() -> game.movementController.setRemoteInput(playerID, tick, keysPressed, shotsFired, roundTrip));
+            }
+        } catch (InterruptedException ignored) {
+            // stopped by the round's ListenerRuntime
+        }
+    }
+}
@@ -1,13 +1,13 @@
 package listeners;
 
 import application.Game;
-import application.GameApplication;
-import application.Shot;
 import javafx.application.Platform;
-import javafx.scene.shape.Rectangle;
+import model.World;
 import org.jspace.ActualField;
 import org.jspace.FormalField;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 public class KillListener implements Runnable {
     private Game game;
 
@@ -18,38 +18,41 @@ public class KillListener implements Runnable {
     @Override
     public void run() {
         try {
-            while (true) {
-                Object[] obj = game.gameSpace.get(new ActualField("kill"), new ActualField(game.MY_PLAYER_ID), new FormalField(Integer.class), new FormalField(Integer.class));
+            while (!Thread.currentThread().isInterrupted()) {
+                Object[] obj = game.gameSpace.get(new ActualField("kill"), new ActualField(game.MY_PLAYER_ID), new FormalField(Integer.class), new FormalField(Integer.class), new ActualField(game.getRound()));
 
                 int playerID = (int) obj[2];
                 int shotID = (int) obj[3];
 
-                if (playerID == -1)
-                    break;
+                if (Thread.currentThread().isInterrupted())
+                    break; // stopped by the round's ListenerRuntime
 
-                synchronized (game.shotsLock) {
-                    Shot shot = game.shots.get(shotID);
+                AtomicBoolean killed = new AtomicBoolean(false);
 
-                    if (shot != null)
-                        game.shotController.removeShot(shot);
-                }
+                Platform.runLater(() -> {
+                    game.shotController.removeShot(shotID);
 
-                Rectangle tractor = game.tractors.get(playerID);
+                    World world = game.world;
+                    int slot = world.slot(playerID);
 
-                if (tractor != null) {
-                    Platform.runLater(() -> game.gamePane.getChildren().remove(tractor));
-                    game.waitForRunLater();
-                    game.tractors.remove(playerID);
+                    if (slot >= 0 && world.alive[slot]) {
+                        world.alive[slot] = false;
+                        game.gamePane.getChildren().remove(game.tractors.get(playerID));
+                        killed.set(true);
+                    }
+                });
+                game.waitForRunLater();
 
-                    if (GameApplication.isRoomHost && game.numPlayersAlive() == 1)
+                if (killed.get()) {
+                    if (game.isHost && game.numPlayersAlive() == 1)
                         new Thread(new GameEndTimer(game)).start();
 
                     if (playerID == game.MY_PLAYER_ID)
                         game.inputController.disable();
                 }
             }
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
+        } catch (InterruptedException ignored) {
+            // stopped by the round's ListenerRuntime
         }
     }
 }
@@ -0,0 +1,106 @@
+package listeners;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+
+// Runs a group of listeners with one lifecycle: start them one by one, stop them all at once.
+// Listeners spend their life blocked in Space.get, so they run on virtual threads when the JVM has them (Java 21+)
+// and on daemon platform threads otherwise.
+//
+// Stopping interrupts every listener, which ends a get on a local or remote space right away. A get on a remote space
+// stays pending on the server though and would take the next matching tuple, so a listener can be started with a wake
+// up action that puts a tuple for it once it is interrupted. A listener must stop when its get throws
+// InterruptedException or returns while its thread is interrupted.
+public class ListenerRuntime {
+    private static final ThreadFactory THREAD_FACTORY = threadFactory();
+    private static final long JOIN_TIMEOUT = 1000; // ms
+
+    public interface WakeUp {
+        void run() throws InterruptedException;
+    }
+
+    private final String name;
+    private final List<Thread> threads = new ArrayList<>();
+    private final List<WakeUp> wakeUps = new ArrayList<>();
+    private volatile boolean stopped;
+
+    public ListenerRuntime(String name) {
+        this.name = name;
+    }
+
+    public void start(Runnable listener, String listenerName) {
+        start(listener, listenerName, null);
+    }
+
+    public synchronized void start(Runnable listener, String listenerName, WakeUp wakeUp) {
+        if (stopped)
+            throw new IllegalStateException(name + " is stopped");
+
+        Thread thread = THREAD_FACTORY.newThread(() -> {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                // a listener interrupted in the middle of its work may fail, that's fine when stopping
+                if (!stopped)
+                    throw e;
+            }
+        });
+        thread.setName(name + " " + listenerName);
+        threads.removeIf(other -> !other.isAlive()); // a long running runtime, like the server's, keeps starting listeners
+        threads.add(thread);
+
+        if (wakeUp != null)
+            wakeUps.add(wakeUp);
+
+        thread.start();
+    }
+
+    // Stops all listeners and waits for them to finish. A listener may stop its own runtime, it is then left to finish by itself
+    public void stop() {
+        List<Thread> toJoin;
+        List<WakeUp> toWake;
+
+        synchronized (this) {
+            stopped = true;
+            toJoin = new ArrayList<>(threads);
+            toWake = new ArrayList<>(wakeUps);
+        }
+
+        toJoin.remove(Thread.currentThread());
+
+        for (Thread thread : toJoin)
+            thread.interrupt();
+
+        try {
+            for (WakeUp wakeUp : toWake)
+                wakeUp.run();
+
+            for (Thread thread : toJoin) {
+                thread.join(JOIN_TIMEOUT);
+
+                if (thread.isAlive())
+                    System.out.println(thread.getName() + " did not stop");
+            }
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    private static ThreadFactory threadFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            return (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            return runnable -> {
+                Thread thread = new Thread(runnable);
+                thread.setDaemon(true);
+                return thread;
+            };
+        }
+    }
+}
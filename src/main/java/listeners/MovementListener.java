@@ -1,93 +1,55 @@
 package listeners;
 
 import application.Game;
-import controllers.MovementController;
-import javafx.animation.AnimationTimer;
 import javafx.application.Platform;
-import javafx.scene.shape.Rectangle;
+import model.PositionCodec;
 import org.jspace.ActualField;
 import org.jspace.FormalField;
 
-import java.util.HashMap;
-
+// Follows the positions of one opponent, reading its updates by number, see PlayerPositionBroadcaster. The oldest update
+// left is checked first: if the next one has already been removed, the listener fell behind and resumes at the oldest,
+// which is a key frame. The opponent ends its positions with an empty update when it stops the round, which completes a
+// query left pending on a remote game space
 public class MovementListener implements Runnable {
     private Game game;
-    private HashMap<Integer, Integer> keysPressed;
-    private HashMap<Integer, AnimationTimer> timers;
-    private HashMap<Integer, Long> lastBroadcast;
+    private int playerID;
+    private final PositionCodec decoder = new PositionCodec(); // for this round
 
-    public MovementListener(Game game) {
+    public MovementListener(Game game, int playerID) {
         this.game = game;
-        keysPressed = new HashMap<>();
-        timers = new HashMap<>();
-        lastBroadcast = new HashMap<>();
-
-        // create animation timer for all enemy tractors
-        for (Integer playerID : game.playersIdNameMap.keySet()) {
-            if (playerID == game.MY_PLAYER_ID)
-                continue;
-
-            keysPressed.put(playerID, 0);
-            lastBroadcast.put(playerID, System.currentTimeMillis());
-
-            timers.put(playerID, new AnimationTimer() {
-                @Override
-                public void handle(long l) {
-                    if (System.currentTimeMillis() - lastBroadcast.get(playerID) < MovementController.MAX_DELAY * 2) {
-                        int curKeysPressed = keysPressed.get(playerID);
-                        Rectangle tractor = game.tractors.get(playerID);
-
-                        if (tractor != null) {
-                            if ((curKeysPressed & (1 << 0)) > 0) game.movementController.move(tractor, "forwards");
-                            if ((curKeysPressed & (1 << 1)) > 0) game.movementController.move(tractor, "backwards");
-                            if ((curKeysPressed & (1 << 2)) > 0)
-                                game.movementController.rotate(tractor, "counterclockwise");
-                            if ((curKeysPressed & (1 << 3)) > 0) game.movementController.rotate(tractor, "clockwise");
-                        }
-                    }
-                }
-            });
-        }
+        this.playerID = playerID;
     }
 
     @Override
     public void run() {
         try {
-            while (true) {
-                Object[] obj = game.gameSpace.get(new ActualField("player position"), new FormalField(Integer.class), new ActualField(game.MY_PLAYER_ID), new FormalField(Double.class), new FormalField(Double.class), new FormalField(Double.class), new FormalField(Integer.class));
-                int playerID = (int) obj[1];
-                double tractorX = (double) obj[3];
-                double tractorY = (double) obj[4];
-                double tractorRot = (double) obj[5];
-                int curKeysPressed = (int) obj[6];
-                keysPressed.replace(playerID, curKeysPressed);
-
-                if (playerID == -1)
-                    break;
-
-                Rectangle tractor = game.tractors.get(playerID);
-
-                Platform.runLater(() -> {
-                    if (tractor != null) {
-                        tractor.setLayoutX(tractorX);
-                        tractor.setLayoutY(tractorY);
-                        tractor.setRotate(tractorRot);
-
-                        AnimationTimer timer = timers.get(playerID);
-                        lastBroadcast.replace(playerID, System.currentTimeMillis());
-
-                        if (game.movementPrediction && curKeysPressed > 0)
-                            timer.start();
-                        else
-                            timers.get(playerID).stop();
-                    }
-                });
+            while (!Thread.currentThread().isInterrupted()) {
+                int round = game.getRound();
+                int number = decoder.updates();
+                Object[] obj = game.gameSpace.queryp(new ActualField("position"), new ActualField(playerID), new FormalField(Integer.class), new FormalField(Integer.class), new FormalField(byte[].class), new ActualField(round));
+
+                if (obj != null && (int) obj[3] > number)
+                    decoder.resume((int) obj[3]);
+                else if (obj == null || (int) obj[3] < number)
+                    obj = game.gameSpace.query(new ActualField("position"), new ActualField(playerID), new ActualField(PositionCodec.keyFrame(number)), new ActualField(number), new FormalField(byte[].class), new ActualField(round));
+
+                long receiveTime = System.currentTimeMillis();
+
+                if (Thread.currentThread().isInterrupted() || ((byte[]) obj[4]).length == 0)
+                    break; // stopped by the round's ListenerRuntime, or the opponent stopped the round
+
+                decoder.decode((byte[]) obj[4]);
+                double tractorX = decoder.x();
+                double tractorY = decoder.y();
+                double tractorRot = decoder.rotation();
+                int curKeysPressed = decoder.keys();
+                long sendTime = decoder.time();
+
+                // the enemy tractor is moved to its buffered positions in the game loop, see MovementController.tick
+                Platform.runLater(() -> game.movementController.setRemoteState(playerID, tractorX, tractorY, tractorRot, curKeysPressed, sendTime, receiveTime));
             }
-
-            for (AnimationTimer timer : timers.values())
-                timer.stop();
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
+        } catch (InterruptedException ignored) {
+            // stopped by the round's ListenerRuntime
         }
     }
 }
@@ -1,8 +1,10 @@
 package listeners;
 
 import application.Room;
+import application.RoomDirectory;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.scene.control.ListView;
 import org.jspace.ActualField;
 import org.jspace.FormalField;
@@ -15,7 +17,6 @@ public class RoomListListener implements Runnable {
 
     private Space lobbySpace;
 
-    private ArrayList<Room> roomList = new ArrayList<>();
     private ListView<Room> roomListView;
 
     public RoomListListener(Space lobbySpace, ListView<Room> roomListView) {
@@ -25,22 +26,40 @@ public class RoomListListener implements Runnable {
 
     @Override
     public void run() {
-        while (true) {
-            try {
-                // Query all the rooms and create a new list of rooms
-                List<Object[]> newRoomObjects = lobbySpace.queryAll(new ActualField("room"), new FormalField(String.class), new FormalField(String.class), new FormalField(Integer.class));
-                ArrayList<Room> newRoomList = new ArrayList<>();
-                for (Object[] objects : newRoomObjects) {
-                    newRoomList.add(new Room((String) objects[1], (String) objects[2], (Integer) objects[3]));
-                }
-                // Check if the old roomList and newRoomList differ, if so update the ListView
-                if (!(roomList.containsAll(newRoomList) && newRoomList.containsAll(roomList))) {
-                    roomList = newRoomList;
-                    Platform.runLater(() -> roomListView.setItems(FXCollections.observableArrayList(roomList)));
-                }
-            } catch (InterruptedException e) {
-                throw new RuntimeException(e);
+        try {
+            // The rooms may already contain changes after version, applying those events again changes nothing
+            int version = RoomDirectory.version(lobbySpace);
+            List<Object[]> roomObjects = lobbySpace.queryAll(new ActualField("room"), new FormalField(String.class), new FormalField(String.class), new FormalField(Integer.class));
+            ArrayList<Room> roomList = new ArrayList<>();
+            for (Object[] objects : roomObjects) {
+                roomList.add(new Room((String) objects[1], (String) objects[2], (Integer) objects[3]));
+            }
+            Platform.runLater(() -> roomListView.setItems(FXCollections.observableArrayList(roomList)));
+
+            // Wait for the next change and apply it to the ListView
+            while (!Thread.currentThread().isInterrupted()) {
+                Object[] event = RoomDirectory.event(lobbySpace, ++version);
+                Room room = new Room((String) event[2], (String) event[3], (Integer) event[4]);
+                Platform.runLater(() -> updateRoom(room));
+            }
+        } catch (InterruptedException ignored) {
+        }
+    }
+
+    private void updateRoom(Room room) {
+        ObservableList<Room> rooms = roomListView.getItems();
+
+        for (int i = 0; i < rooms.size(); i++) {
+            if (rooms.get(i).getAddress().equals(room.getAddress())) {
+                if (room.getNumberOfPlayers() == RoomDirectory.REMOVED)
+                    rooms.remove(i);
+                else
+                    rooms.set(i, room);
+                return;
             }
         }
+
+        if (room.getNumberOfPlayers() != RoomDirectory.REMOVED)
+            rooms.add(room);
     }
 }
@@ -1,11 +1,9 @@
 package listeners;
 
 import application.Room;
+import application.RoomMembers;
 import controllers.RoomSceneViewController;
 import datatypes.ArrayListInt;
-import javafx.application.Platform;
-import org.jspace.ActualField;
-import org.jspace.FormalField;
 import org.jspace.Space;
 
 import java.util.ArrayList;
@@ -23,25 +21,29 @@ public class RoomPlayerListener implements Runnable {
 
     @Override
     public void run() {
-        while (true) {
-            try {
-                ArrayList<String> newPlayerNames = (ArrayList<String>) roomSpace.query(new ActualField("playerNameList"), new FormalField(ArrayList.class))[1];
-
-                // Update list of player names if the two lists are different
-                if (!playerNames.equals(newPlayerNames)) {
-                    playerNames = newPlayerNames;
-                    Platform.runLater(() -> roomController.updatePlayerList(newPlayerNames));
-                    Room.playerNames = newPlayerNames;
+        try {
+            int version = RoomMembers.read(roomSpace, playerNames, playerIds);
+            roomController.updatePlayerList(new ArrayList<>(playerNames));
+            Room.playerNames = playerNames;
+
+            // Wait for the next player to join or leave and apply it to the player list
+            while (!Thread.currentThread().isInterrupted()) {
+                Object[] event = RoomMembers.event(roomSpace, ++version);
+                int playerId = (int) event[2];
+                String name = (String) event[3];
+
+                if ((boolean) event[4]) {
+                    playerNames.add(name);
+                    playerIds.add(playerId);
+                    roomController.addPlayer(name);
+                } else {
+                    int index = playerIds.indexOf(playerId);
+                    playerNames.remove(index);
+                    playerIds.remove(index);
+                    roomController.removePlayer(index);
                 }
-                ArrayListInt newPlayerIds = (ArrayListInt) roomSpace.query(new ActualField("playerIdList"), new FormalField(ArrayListInt.class))[1];
-
-                if (!playerIds.equals(newPlayerIds)) {
-                    roomSpace.get(new ActualField("playerIdList"), new FormalField(ArrayListInt.class));
-                    playerIds = newPlayerIds;
-                    roomSpace.put("playerIdList", playerIds);
-                }
-            } catch (InterruptedException e) {
             }
+        } catch (InterruptedException ignored) {
         }
     }
 
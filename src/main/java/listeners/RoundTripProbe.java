@@ -0,0 +1,37 @@
+package listeners;
+
+import application.Game;
+import javafx.application.Platform;
+import org.jspace.ActualField;
+
+// Measures the round trip to the game space every second between peers, for deciding when to send positions, see
+// DeadReckoning. A queryp for a tuple that is never put takes exactly one round trip
+public class RoundTripProbe implements Runnable {
+    private static final long INTERVAL = 1000; // ms
+    private Game game;
+
+    public RoundTripProbe(Game game) {
+        this.game = game;
+    }
+
+    @Override
+    public void run() {
+        try {
+            double roundTrip = -1; // ns, smoothed
+
+            while (!Thread.currentThread().isInterrupted()) {
+                Thread.sleep(INTERVAL);
+
+                long start = System.nanoTime();
+                game.gameSpace.queryp(new ActualField("round trip probe"));
+                long sample = System.nanoTime() - start;
+
+                roundTrip = roundTrip < 0 ? sample : 0.875 * roundTrip + 0.125 * sample;
+                int ticks = (int) Math.round(roundTrip * game.tickRate / 1e9);
+                Platform.runLater(() -> game.movementController.setRoundTrip(ticks));
+            }
+        } catch (InterruptedException ignored) {
+            // stopped by the round's ListenerRuntime
+        }
+    }
+}
@@ -1,9 +1,8 @@
 package listeners;
 
 import application.Game;
-import application.GameApplication;
 import broadcasters.KillBroadcaster;
-import application.Shot;
+import javafx.application.Platform;
 import org.jspace.ActualField;
 import org.jspace.FormalField;
 
@@ -17,33 +16,27 @@ public class ShotListener implements Runnable {
     @Override
     public void run() {
         try {
-            while (true) {
-                Object[] obj = game.gameSpace.get(new ActualField("new shot"), new FormalField(Integer.class), new ActualField(game.MY_PLAYER_ID), new FormalField(Integer.class), new FormalField(Double.class), new FormalField(Double.class), new FormalField(Double.class));
+            while (!Thread.currentThread().isInterrupted()) {
+                Object[] obj = game.gameSpace.get(new ActualField("new shot"), new FormalField(Integer.class), new ActualField(game.MY_PLAYER_ID), new FormalField(Integer.class), new FormalField(Double.class), new FormalField(Double.class), new FormalField(Double.class), new ActualField(game.getRound()));
                 int playerID = (int) obj[1];
                 int shotID = (int) obj[3];
                 double shotX = (double) obj[4];
                 double shotY = (double) obj[5];
                 double shotRot = (double) obj[6];
 
-                if (playerID == -1)
-                    break;
+                if (Thread.currentThread().isInterrupted())
+                    break; // stopped by the round's ListenerRuntime
 
-                Shot shot;
+                Platform.runLater(() -> {
+                    int index = game.shotController.shoot(shotX, shotY, shotRot, playerID, shotID);
 
-                synchronized (game.shotsLock) {
-                    shot = game.shotController.shoot(shotX, shotY, shotRot, playerID, shotID);
-                    game.shots.put(shotID, shot);
-                }
-
-                // if a player shoots directly into a wall, they die immediately
-                if (GameApplication.isRoomHost && game.grid.isWallCollision(shot)) {
-                    Thread killBroadcaster = new Thread(new KillBroadcaster(game, playerID, shotID));
-                    killBroadcaster.start();
-                    killBroadcaster.join();
-                }
+                    // if a player shoots directly into a wall, they die immediately
+                    if (game.isHost && index >= 0 && game.simulation.isShotWallCollision(index))
+                        game.broadcastSender.send(new KillBroadcaster(game, playerID, shotID));
+                });
             }
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
+        } catch (InterruptedException ignored) {
+            // stopped by the round's ListenerRuntime
         }
     }
 }
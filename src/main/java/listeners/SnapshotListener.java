@@ -0,0 +1,38 @@
+package listeners;
+
+import application.Game;
+import javafx.application.Platform;
+import model.Snapshot;
+import org.jspace.ActualField;
+import org.jspace.FormalField;
+import physics.Simulation;
+
+// Applies the host's snapshots on a client when the host is authoritative
+public class SnapshotListener implements Runnable {
+    private Game game;
+
+    public SnapshotListener(Game game) {
+        this.game = game;
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Object[] obj = game.gameSpace.get(new ActualField("snapshot"), new ActualField(game.MY_PLAYER_ID), new FormalField(Integer.class), new FormalField(double[].class), new FormalField(int[].class), new FormalField(double[].class), new FormalField(int[].class), new ActualField(game.getRound()));
+
+                if (Thread.currentThread().isInterrupted())
+                    break; // stopped by the round's ListenerRuntime
+
+                Snapshot snapshot = new Snapshot((int) obj[2], (double[]) obj[3], (int[]) obj[4], (double[]) obj[5], (int[]) obj[6]);
+                Platform.runLater(() -> {
+                    snapshot.apply(game.world, Simulation.SHOT_SPEED, game.world.slot(game.MY_PLAYER_ID));
+                    game.movementController.reconcile(snapshot);
+                    game.shotController.updateShotNodes();
+                });
+            }
+        } catch (InterruptedException ignored) {
+            // stopped by the round's ListenerRuntime
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package model;
+
+import physics.DeadReckoning;
+import physics.Simulation;
+
+// The last positions received for one remote tractor, stamped with the time they were sent. The tractor is shown
+// where it was a fixed delay ago, so updates arriving early or late don't make it jump: it starts from the newest
+// position sent before that time and keeps moving by the keys sent with it (dead reckoning), just like the sender
+// assumes, see DeadReckoning. A position only arrives when the keys change, the tractor drifted from where the keys
+// would take it, or every DeadReckoning.HEARTBEAT ms while it moves. When positions stop arriving the tractor is moved
+// at most MAX_RECKONING ms past the last one and then held there, instead of driving off on its last keys.
+//
+// Send times come from the sender's clock. They are moved to the local clock by the smallest difference between
+// receive and send time seen so far, which is the clock offset plus the fastest delivery.
+public class JitterBuffer {
+    private static final int CAPACITY = 16; // positions, a power of two
+    public static final int MAX_RECKONING = 2 * DeadReckoning.HEARTBEAT; // ms, a missed heartbeat is still covered
+
+    private final long[] times = new long[CAPACITY]; // ms, local clock
+    private final double[] x = new double[CAPACITY], y = new double[CAPACITY], rotation = new double[CAPACITY];
+    private final int[] keys = new int[CAPACITY];
+    private int newest = -1; // index of the newest position, positions are stored in send order
+    private int size;
+    private long clockOffset = Long.MAX_VALUE;
+    private long base = -1; // time of the position the tractor is moving from
+    private int reckonedTicks; // ticks the tractor has moved from base
+
+    public void add(long sendTime, long receiveTime, double x, double y, double rotation, int keys) {
+        long offset = receiveTime - sendTime;
+
+        if (offset < clockOffset) {
+            // a faster delivery, move the stored positions to the better estimate of the clock offset
+            if (size > 0) {
+                for (int i = 0; i < CAPACITY; i++)
+                    times[i] -= clockOffset - offset;
+                base -= clockOffset - offset;
+            }
+            clockOffset = offset;
+        }
+
+        long time = sendTime + clockOffset;
+
+        // a position sent before the newest one is outdated
+        if (size > 0 && time <= times[newest])
+            return;
+
+        newest = (newest + 1) & (CAPACITY - 1);
+        times[newest] = time;
+        this.x[newest] = x;
+        this.y[newest] = y;
+        this.rotation[newest] = rotation;
+        this.keys[newest] = keys;
+        size = Math.min(size + 1, CAPACITY);
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Moves the tractor in the slot to where it was at renderTime, by dead reckoning from the position before that if
+    // reckon is set. Only the current state is set, the previous state is left for rendering between ticks
+    public void sample(long renderTime, boolean reckon, Simulation simulation, int slot) {
+        if (size == 0)
+            return;
+
+        // the newest position sent before renderTime, or the oldest if renderTime is before all of them
+        int from = index(size - 1);
+        for (int i = 0; i < size; i++) {
+            if (times[index(i)] <= renderTime) {
+                from = index(i);
+                break;
+            }
+        }
+
+        World world = simulation.world;
+
+        if (times[from] != base) {
+            base = times[from];
+            reckonedTicks = 0;
+            world.tractorX[slot] = x[from];
+            world.tractorY[slot] = y[from];
+            world.tractorRotation[slot] = rotation[from];
+        }
+
+        if (!reckon)
+            return;
+
+        long ticks = Math.min(renderTime - base, MAX_RECKONING) * simulation.tickRate / 1000;
+        for (; reckonedTicks < ticks; reckonedTicks++)
+            simulation.applyKeys(slot, keys[from]);
+    }
+
+    // index of the position i positions before the newest
+    private int index(int i) {
+        return (newest - i) & (CAPACITY - 1);
+    }
+}
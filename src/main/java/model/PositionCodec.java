@@ -0,0 +1,143 @@
+package model;
+
+import java.io.ByteArrayOutputStream;
+
+// Compact encoding of a stream of tractor states, one codec per sending player on each end.
+// Positions are fixed point in 1/16 px and rotations in 1/4096 turns. Every KEY_FRAME_INTERVAL-th update, starting with
+// the first, is a key frame holding the whole state. The updates in between are the difference to the update before,
+// so they must be decoded in order: receivers read them by number, see MovementListener. The sender removes the updates
+// before the last two key frames, a receiver that falls that far behind resumes at the oldest key frame left.
+// Should a receiver still decode one out of order, it is back in step at the next key frame. With
+// DeadReckoning sending a moving tractor at least every HEARTBEAT ms, that is at most 4 s away for a tractor driving
+// straight, and sooner when it steers. A round starts with new codecs.
+//
+// An update is a header byte followed by zigzag varints:
+//   header: bit 0 key frame, bits 1-4 keys pressed, bits 5-7 whether x, y, rotation changed (deltas only)
+//   key frame: time, x, y, rotation       delta: time, then x, y, rotation for those that changed
+// Times are ms since the sender's first update, which is all the receiver's jitter buffer needs.
+public class PositionCodec {
+    public static final int KEY_FRAME_INTERVAL = 16; // updates
+    private static final double POSITION_SCALE = 16; // units per px
+    private static final int ROTATION_UNITS = 4096; // per turn
+    private static final int KEY_FRAME = 1, CHANGED_X = 1 << 5, CHANGED_Y = 1 << 6, CHANGED_ROTATION = 1 << 7;
+
+    private int updates; // encoded or decoded so far
+    private long startTime; // ms, sender only
+    private long time;
+    private int x, y, rotation; // quantized, rotation is not wrapped so it interpolates the short way
+    private int keys;
+
+    // the state after the last update, read by the receiver after decode
+    public long time() {
+        return time;
+    }
+
+    public double x() {
+        return x / POSITION_SCALE;
+    }
+
+    public double y() {
+        return y / POSITION_SCALE;
+    }
+
+    public double rotation() {
+        return rotation * 360.0 / ROTATION_UNITS;
+    }
+
+    public int keys() {
+        return keys;
+    }
+
+    // the number of updates encoded or decoded so far, which is the number of the next one
+    public int updates() {
+        return updates;
+    }
+
+    // the key frame an update follows, or the update itself if it is a key frame
+    public static int keyFrame(int number) {
+        return number - number % KEY_FRAME_INTERVAL;
+    }
+
+    // a receiver skipping to a later key frame, the next update decoded is the given one
+    public void resume(int number) {
+        updates = number;
+    }
+
+    public byte[] encode(long time, double x, double y, double rotation, int keys) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16);
+        int qx = (int) Math.round(x * POSITION_SCALE);
+        int qy = (int) Math.round(y * POSITION_SCALE);
+        int qRotation = (int) Math.round(rotation * ROTATION_UNITS / 360);
+
+        if (updates == 0)
+            startTime = time;
+
+        if (updates++ % KEY_FRAME_INTERVAL == 0) {
+            out.write(KEY_FRAME | keys << 1);
+            writeVarint(out, time - startTime);
+            writeVarint(out, qx);
+            writeVarint(out, qy);
+            writeVarint(out, qRotation);
+        } else {
+            int header = keys << 1;
+            if (qx != this.x) header |= CHANGED_X;
+            if (qy != this.y) header |= CHANGED_Y;
+            if (qRotation != this.rotation) header |= CHANGED_ROTATION;
+
+            out.write(header);
+            writeVarint(out, time - startTime - this.time);
+            if (qx != this.x) writeVarint(out, qx - this.x);
+            if (qy != this.y) writeVarint(out, qy - this.y);
+            if (qRotation != this.rotation) writeVarint(out, qRotation - this.rotation);
+        }
+
+        this.time = time - startTime;
+        this.x = qx;
+        this.y = qy;
+        this.rotation = qRotation;
+        this.keys = keys;
+        return out.toByteArray();
+    }
+
+    public void decode(byte[] update) {
+        updates++;
+        int[] position = {1};
+        int header = update[0] & 0xff;
+        keys = header >> 1 & 0xf;
+
+        if ((header & KEY_FRAME) != 0) {
+            time = readVarint(update, position);
+            x = (int) readVarint(update, position);
+            y = (int) readVarint(update, position);
+            rotation = (int) readVarint(update, position);
+        } else {
+            time += readVarint(update, position);
+            if ((header & CHANGED_X) != 0) x += (int) readVarint(update, position);
+            if ((header & CHANGED_Y) != 0) y += (int) readVarint(update, position);
+            if ((header & CHANGED_ROTATION) != 0) rotation += (int) readVarint(update, position);
+        }
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        long zigzag = (value << 1) ^ (value >> 63);
+
+        while ((zigzag & ~0x7fL) != 0) {
+            out.write((int) (zigzag & 0x7f) | 0x80);
+            zigzag >>>= 7;
+        }
+
+        out.write((int) zigzag);
+    }
+
+    private static long readVarint(byte[] bytes, int[] position) {
+        long zigzag = 0;
+
+        for (int shift = 0; ; shift += 7) {
+            byte b = bytes[position[0]++];
+            zigzag |= (long) (b & 0x7f) << shift;
+
+            if (b >= 0)
+                return (zigzag >>> 1) ^ -(zigzag & 1);
+        }
+    }
+}
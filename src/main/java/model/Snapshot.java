@@ -0,0 +1,100 @@
+package model;
+
+// The state of a world after a tick of the host, sent to the clients when the host is authoritative.
+// Flat primitive arrays, so a snapshot fits in a tuple:
+// tractors: x, y, rotation per slot       tractorStates: keys, alive (1 or 0), input tick (see World.inputTicks) per slot
+// shots: x, y, rotation per shot          shotStates: shot ID, player ID, ticks left, hit (1 or 0) per shot
+public class Snapshot {
+    public final int tick;
+    public final double[] tractors, shots;
+    public final int[] tractorStates, shotStates;
+
+    public Snapshot(int tick, double[] tractors, int[] tractorStates, double[] shots, int[] shotStates) {
+        this.tick = tick;
+        this.tractors = tractors;
+        this.tractorStates = tractorStates;
+        this.shots = shots;
+        this.shotStates = shotStates;
+    }
+
+    public static Snapshot capture(World world, int tick) {
+        double[] tractors = new double[world.numTractors * 3];
+        int[] tractorStates = new int[world.numTractors * 3];
+
+        for (int slot = 0; slot < world.numTractors; slot++) {
+            tractors[slot * 3] = world.tractorX[slot];
+            tractors[slot * 3 + 1] = world.tractorY[slot];
+            tractors[slot * 3 + 2] = world.tractorRotation[slot];
+            tractorStates[slot * 3] = world.keys[slot];
+            tractorStates[slot * 3 + 1] = world.alive[slot] ? 1 : 0;
+            tractorStates[slot * 3 + 2] = world.inputTicks[slot];
+        }
+
+        double[] shots = new double[world.numShots * 3];
+        int[] shotStates = new int[world.numShots * 4];
+
+        for (int i = 0; i < world.numShots; i++) {
+            shots[i * 3] = world.shotX[i];
+            shots[i * 3 + 1] = world.shotY[i];
+            shots[i * 3 + 2] = world.shotRotation[i];
+            shotStates[i * 4] = world.shotIDs[i];
+            shotStates[i * 4 + 1] = world.shotPlayerIDs[i];
+            shotStates[i * 4 + 2] = world.shotTicksLeft[i];
+            shotStates[i * 4 + 3] = world.shotHit[i] ? 1 : 0;
+        }
+
+        return new Snapshot(tick, tractors, tractorStates, shots, shotStates);
+    }
+
+    public double x(int slot) {
+        return tractors[slot * 3];
+    }
+
+    public double y(int slot) {
+        return tractors[slot * 3 + 1];
+    }
+
+    public double rotation(int slot) {
+        return tractors[slot * 3 + 2];
+    }
+
+    public int inputTick(int slot) {
+        return tractorStates[slot * 3 + 2];
+    }
+
+    // Makes the snapshot the current state of the world, the previous state is left for interpolation.
+    // The tractor in predictedSlot is moved by the client itself, see MovementController.reconcile.
+    // A tractor killed on this client stays dead even if the snapshot was taken before the kill
+    public void apply(World world, double shotSpeed, int predictedSlot) {
+        for (int slot = 0; slot < world.numTractors; slot++) {
+            world.alive[slot] &= tractorStates[slot * 3 + 1] == 1;
+
+            if (slot == predictedSlot)
+                continue;
+
+            world.tractorX[slot] = tractors[slot * 3];
+            world.tractorY[slot] = tractors[slot * 3 + 1];
+            world.tractorRotation[slot] = tractors[slot * 3 + 2];
+            world.keys[slot] = tractorStates[slot * 3];
+        }
+
+        // shots may have moved to other indices, interpolate each from where it was in the last snapshot
+        int numShots = shotStates.length / 4;
+        double[] previousX = new double[numShots], previousY = new double[numShots];
+
+        for (int i = 0; i < numShots; i++) {
+            int previous = world.shotIndex(shotStates[i * 4]);
+            previousX[i] = previous >= 0 ? world.shotX[previous] : shots[i * 3];
+            previousY[i] = previous >= 0 ? world.shotY[previous] : shots[i * 3 + 1];
+        }
+
+        world.numShots = 0;
+
+        for (int i = 0; i < numShots; i++) {
+            int index = world.addShot(shotStates[i * 4], shotStates[i * 4 + 1], shots[i * 3], shots[i * 3 + 1], shots[i * 3 + 2], shotSpeed, shotStates[i * 4 + 2]);
+            world.shotHit[index] = shotStates[i * 4 + 3] == 1;
+            world.previousShotX[index] = previousX[i];
+            world.previousShotY[index] = previousY[i];
+        }
+    }
+}
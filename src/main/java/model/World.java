@@ -0,0 +1,140 @@
+package model;
+
+import java.util.Collection;
+
+// Plain game state without any JavaFX nodes: one slot per player for the tractors and a dense array of active shots.
+// Tractor positions are the top left corner of the unrotated tractor (like layoutX/Y of its node), angles are in degrees
+// and shot velocities in pixels per second.
+// The state is not thread safe, it must only be touched by the thread running the simulation.
+public class World {
+    public static final int MAX_SHOTS = 64;
+
+    // tractors, slot i belongs to playerIDs[i]
+    public final int numTractors;
+    public final int[] playerIDs;
+    public final double[] tractorX, tractorY, tractorRotation;
+    public final boolean[] alive;
+    public final int[] keys; // bitmask of keys pressed ... up, down, left, right
+    public final int[] inputTicks; // on an authoritative host, the last tick of the player's input the state includes
+    // positions at the start of the current tick, for interpolating between ticks when rendering
+    public final double[] previousTractorX, previousTractorY, previousTractorRotation;
+
+    // shots, the active shots are in 0 .. numShots - 1
+    public int numShots;
+    public final int[] shotIDs = new int[MAX_SHOTS];
+    public final int[] shotPlayerIDs = new int[MAX_SHOTS];
+    public final double[] shotX = new double[MAX_SHOTS];
+    public final double[] shotY = new double[MAX_SHOTS];
+    public final double[] shotRotation = new double[MAX_SHOTS];
+    public final double[] shotVelocityX = new double[MAX_SHOTS];
+    public final double[] shotVelocityY = new double[MAX_SHOTS];
+    public final int[] shotTicksLeft = new int[MAX_SHOTS];
+    public final boolean[] shotHit = new boolean[MAX_SHOTS]; // hit a tractor, stays put until the kill removes it
+    public final double[] previousShotX = new double[MAX_SHOTS];
+    public final double[] previousShotY = new double[MAX_SHOTS];
+
+    public World(Collection<Integer> playerIDs) {
+        numTractors = playerIDs.size();
+        this.playerIDs = new int[numTractors];
+        tractorX = new double[numTractors];
+        tractorY = new double[numTractors];
+        tractorRotation = new double[numTractors];
+        alive = new boolean[numTractors];
+        keys = new int[numTractors];
+        inputTicks = new int[numTractors];
+        previousTractorX = new double[numTractors];
+        previousTractorY = new double[numTractors];
+        previousTractorRotation = new double[numTractors];
+
+        int slot = 0;
+        for (int playerID : playerIDs) {
+            this.playerIDs[slot] = playerID;
+            alive[slot++] = true;
+        }
+    }
+
+    // slot of the player's tractor, or -1 if the player is not in the game
+    public int slot(int playerID) {
+        for (int slot = 0; slot < numTractors; slot++) {
+            if (playerIDs[slot] == playerID)
+                return slot;
+        }
+
+        return -1;
+    }
+
+    // moves the tractor without interpolating from its old position
+    public void setTractor(int slot, double x, double y, double rotation) {
+        tractorX[slot] = previousTractorX[slot] = x;
+        tractorY[slot] = previousTractorY[slot] = y;
+        tractorRotation[slot] = previousTractorRotation[slot] = rotation;
+    }
+
+    public void savePreviousState() {
+        System.arraycopy(tractorX, 0, previousTractorX, 0, numTractors);
+        System.arraycopy(tractorY, 0, previousTractorY, 0, numTractors);
+        System.arraycopy(tractorRotation, 0, previousTractorRotation, 0, numTractors);
+        System.arraycopy(shotX, 0, previousShotX, 0, numShots);
+        System.arraycopy(shotY, 0, previousShotY, 0, numShots);
+    }
+
+    public int numAlive() {
+        int numAlive = 0;
+
+        for (int slot = 0; slot < numTractors; slot++) {
+            if (alive[slot])
+                numAlive++;
+        }
+
+        return numAlive;
+    }
+
+    // index of the shot, or -1 if it is not active
+    public int shotIndex(int shotID) {
+        for (int i = 0; i < numShots; i++) {
+            if (shotIDs[i] == shotID)
+                return i;
+        }
+
+        return -1;
+    }
+
+    // returns the index of the new shot, or -1 if there is no room for it
+    public int addShot(int shotID, int playerID, double x, double y, double rotation, double speed, int lifetimeTicks) {
+        if (numShots == MAX_SHOTS)
+            return -1;
+
+        int i = numShots++;
+        shotIDs[i] = shotID;
+        shotPlayerIDs[i] = playerID;
+        shotX[i] = previousShotX[i] = x;
+        shotY[i] = previousShotY[i] = y;
+        setShotRotation(i, rotation, speed);
+        shotTicksLeft[i] = lifetimeTicks;
+        shotHit[i] = false;
+        return i;
+    }
+
+    public void setShotRotation(int i, double rotation, double speed) {
+        double angle = Math.toRadians(rotation);
+        shotRotation[i] = rotation;
+        shotVelocityX[i] = Math.cos(angle) * speed;
+        shotVelocityY[i] = Math.sin(angle) * speed;
+    }
+
+    // the last shot is moved into the freed index, so indices of other shots may change
+    public void removeShot(int i) {
+        int last = --numShots;
+        shotIDs[i] = shotIDs[last];
+        shotPlayerIDs[i] = shotPlayerIDs[last];
+        shotX[i] = shotX[last];
+        shotY[i] = shotY[last];
+        shotRotation[i] = shotRotation[last];
+        shotVelocityX[i] = shotVelocityX[last];
+        shotVelocityY[i] = shotVelocityY[last];
+        shotTicksLeft[i] = shotTicksLeft[last];
+        shotHit[i] = shotHit[last];
+        previousShotX[i] = previousShotX[last];
+        previousShotY[i] = previousShotY[last];
+    }
+}
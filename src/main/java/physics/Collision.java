@@ -0,0 +1,62 @@
+package physics;
+
+// Allocation free intersection tests on plain doubles.
+// Boxes are given by center, half extents and rotation in degrees (like a JavaFX node rotated about its center),
+// rectangles are axis aligned and given by top left corner, width and height (like the maze walls).
+// All tests are strict, i.e. shapes that only touch along an edge do not collide.
+public final class Collision {
+
+    private Collision() {
+    }
+
+    // oriented box vs axis aligned rectangle - separating axis theorem on the four face normals
+    public static boolean boxIntersectsRect(double cx, double cy, double halfWidth, double halfHeight, double angleInDegrees,
+                                            double x, double y, double width, double height) {
+        double angle = Math.toRadians(angleInDegrees);
+        double cos = Math.cos(angle);
+        double sin = Math.sin(angle);
+        return boxIntersectsRect(cx, cy, halfWidth, halfHeight, cos, sin, x, y, width, height);
+    }
+
+    // same as above with the rotation already resolved, so callers testing many walls only compute it once
+    public static boolean boxIntersectsRect(double cx, double cy, double halfWidth, double halfHeight, double cos, double sin,
+                                            double x, double y, double width, double height) {
+        double rectHalfWidth = width / 2;
+        double rectHalfHeight = height / 2;
+        double dX = cx - (x + rectHalfWidth);
+        double dY = cy - (y + rectHalfHeight);
+        double absCos = Math.abs(cos);
+        double absSin = Math.abs(sin);
+
+        // rectangle axes
+        if (Math.abs(dX) >= rectHalfWidth + halfWidth * absCos + halfHeight * absSin) return false;
+        if (Math.abs(dY) >= rectHalfHeight + halfWidth * absSin + halfHeight * absCos) return false;
+
+        // box axes
+        if (Math.abs(dX * cos + dY * sin) >= halfWidth + rectHalfWidth * absCos + rectHalfHeight * absSin) return false;
+        return Math.abs(-dX * sin + dY * cos) < halfHeight + rectHalfWidth * absSin + rectHalfHeight * absCos;
+    }
+
+    // circle vs axis aligned rectangle - distance from the center to the closest point of the rectangle
+    public static boolean circleIntersectsRect(double cx, double cy, double radius,
+                                               double x, double y, double width, double height) {
+        double closestX = Math.max(x, Math.min(cx, x + width));
+        double closestY = Math.max(y, Math.min(cy, y + height));
+        double dX = cx - closestX;
+        double dY = cy - closestY;
+        return dX * dX + dY * dY < radius * radius;
+    }
+
+    // circle vs oriented box - move the circle into the box' own frame and test against an axis aligned box
+    public static boolean circleIntersectsBox(double cx, double cy, double radius,
+                                              double boxCx, double boxCy, double halfWidth, double halfHeight, double angleInDegrees) {
+        double angle = Math.toRadians(angleInDegrees);
+        double cos = Math.cos(angle);
+        double sin = Math.sin(angle);
+        double dX = cx - boxCx;
+        double dY = cy - boxCy;
+        double localX = dX * cos + dY * sin;
+        double localY = -dX * sin + dY * cos;
+        return circleIntersectsRect(localX, localY, radius, -halfWidth, -halfHeight, 2 * halfWidth, 2 * halfHeight);
+    }
+}
@@ -0,0 +1,59 @@
+package physics;
+
+import application.Grid;
+import model.World;
+
+import java.util.List;
+
+// Decides when a player sends the position of its tractor. The other players keep moving the tractor by the keys sent
+// with its last position, see JitterBuffer, so the sender runs the same simulation on a copy of that position and only
+// sends when it has drifted too far from the real tractor, or right away when the keys change.
+// The drift is judged as the receivers will see it when the update arrives: the growth of the error over the last tick
+// is added for half a round trip. A moving tractor is also sent every HEARTBEAT ms, so receivers can stop moving it
+// when updates go missing, see JitterBuffer.
+public class DeadReckoning {
+    public static final int POSITION_THRESHOLD = Integer.getInteger("positionThreshold", 2); // px
+    public static final int ROTATION_THRESHOLD = Integer.getInteger("rotationThreshold", 3); // degrees
+    public static final int HEARTBEAT = Integer.getInteger("positionHeartbeat", 250); // ms
+
+    private final World sent = new World(List.of(0)); // the tractor as the receivers see it
+    private final Simulation simulation;
+    private final int heartbeatTicks;
+    private int keys = -1;
+    private int ticksSinceSent;
+    private double positionError, rotationError; // in the last tick
+
+    public DeadReckoning(Grid grid, int tickRate) {
+        simulation = new Simulation(sent, grid, tickRate);
+        heartbeatTicks = Math.max(1, HEARTBEAT * tickRate / 1000);
+    }
+
+    // Called once per tick after the tractor in the slot has moved. Returns whether its position must be sent,
+    // roundTrip is in ticks
+    public boolean tick(World world, int slot, int roundTrip) {
+        if (world.keys[slot] != keys || keys != 0 && ++ticksSinceSent >= heartbeatTicks)
+            return true;
+
+        simulation.applyKeys(0, keys);
+
+        double dx = world.tractorX[slot] - sent.tractorX[0], dy = world.tractorY[slot] - sent.tractorY[0];
+        double position = Math.sqrt(dx * dx + dy * dy);
+        double rotation = Math.abs(world.tractorRotation[slot] - sent.tractorRotation[0]);
+        double latency = roundTrip / 2.0;
+
+        boolean send = position + Math.max(0, position - positionError) * latency > POSITION_THRESHOLD
+                || rotation + Math.max(0, rotation - rotationError) * latency > ROTATION_THRESHOLD;
+
+        positionError = position;
+        rotationError = rotation;
+        return send;
+    }
+
+    // the position of the tractor in the slot was sent
+    public void sent(World world, int slot) {
+        sent.setTractor(0, world.tractorX[slot], world.tractorY[slot], world.tractorRotation[slot]);
+        keys = world.keys[slot];
+        positionError = rotationError = 0;
+        ticksSinceSent = 0;
+    }
+}
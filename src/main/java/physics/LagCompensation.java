@@ -0,0 +1,74 @@
+package physics;
+
+import model.World;
+
+// The poses of every tractor over the last MAX_REWIND ms, recorded by the room host once per tick. When the host
+// checks a shot for hits, every other tractor is rewound to where the shooter saw it:
+// - when the host is authoritative, a client sees the world a round trip late, the client reports its round trip in
+//   ticks with its input
+// - otherwise every player shows the other tractors INTERPOLATION_DELAY late, the host's own tractor included, so only
+//   the host's own tractor is rewound for shots of other players - the host sees the others just as late as they do
+// A tractor is never rewound for its own shots, and never by more than the history holds.
+public class LagCompensation {
+    public static final int MAX_REWIND = Integer.getInteger("maxRewind", 250); // ms
+
+    private final World world;
+    private final int capacity; // ticks
+    private final double[] x, y, rotation; // [tick % capacity * numTractors + slot]
+    private final int[] viewLag; // per slot, ticks the player sees the other tractors late
+    private final int hostSlot, hostLag;
+    private int ticks; // recorded so far
+
+    public LagCompensation(World world, int tickRate, int hostSlot, int hostLag) {
+        this.world = world;
+        this.hostSlot = hostSlot;
+        this.hostLag = Math.min(toTicks(hostLag, tickRate), toTicks(MAX_REWIND, tickRate));
+        capacity = toTicks(MAX_REWIND, tickRate) + 1;
+        x = new double[capacity * world.numTractors];
+        y = new double[capacity * world.numTractors];
+        rotation = new double[capacity * world.numTractors];
+        viewLag = new int[world.numTractors];
+    }
+
+    private static int toTicks(int ms, int tickRate) {
+        return (int) Math.round(ms * tickRate / 1000.0);
+    }
+
+    // called after the tractors have moved in a tick
+    public void record() {
+        int offset = ticks++ % capacity * world.numTractors;
+        System.arraycopy(world.tractorX, 0, x, offset, world.numTractors);
+        System.arraycopy(world.tractorY, 0, y, offset, world.numTractors);
+        System.arraycopy(world.tractorRotation, 0, rotation, offset, world.numTractors);
+    }
+
+    // the round trip of a client of an authoritative host
+    public void setViewLag(int slot, int ticks) {
+        viewLag[slot] = Math.max(0, Math.min(ticks, capacity - 1));
+    }
+
+    // ticks to rewind the target for a shot of the shooter
+    public int rewind(int shooterSlot, int targetSlot) {
+        if (shooterSlot < 0 || shooterSlot == targetSlot)
+            return 0;
+
+        int rewind = targetSlot == hostSlot ? Math.max(viewLag[shooterSlot], hostLag) : viewLag[shooterSlot];
+        return Math.min(rewind, ticks - 1);
+    }
+
+    public double x(int slot, int rewind) {
+        return rewind <= 0 ? world.tractorX[slot] : x[index(slot, rewind)];
+    }
+
+    public double y(int slot, int rewind) {
+        return rewind <= 0 ? world.tractorY[slot] : y[index(slot, rewind)];
+    }
+
+    public double rotation(int slot, int rewind) {
+        return rewind <= 0 ? world.tractorRotation[slot] : rotation[index(slot, rewind)];
+    }
+
+    private int index(int slot, int rewind) {
+        return (ticks - 1 - rewind) % capacity * world.numTractors + slot;
+    }
+}
@@ -0,0 +1,43 @@
+package physics;
+
+import model.Snapshot;
+import model.World;
+
+// The own tractor of a client of an authoritative host. It is moved right away by the keys pressed, and the keys are
+// remembered per tick, so the ticks the host has not seen yet can be replayed on top of the position in each snapshot.
+public class Prediction {
+    private static final int INPUT_HISTORY = 256; // ticks, a power of two
+
+    private final Simulation simulation;
+    private final int[] keyHistory = new int[INPUT_HISTORY];
+    private int tick;
+
+    public Prediction(Simulation simulation) {
+        this.simulation = simulation;
+    }
+
+    // moves the tractor in the slot by the keys for one tick, returns the tick
+    public int predict(int slot, int keys) {
+        tick++;
+        keyHistory[tick & (INPUT_HISTORY - 1)] = keys;
+        simulation.world.keys[slot] = keys;
+        simulation.applyKeys(slot, keys);
+        return tick;
+    }
+
+    // Moves the tractor in the slot to where the host has it and replays the ticks since the last input the host
+    // included. Only the current state is set, so a correction is rendered as part of the next tick rather than a jump.
+    // Returns the round trip in ticks
+    public int reconcile(Snapshot snapshot, int slot) {
+        World world = simulation.world;
+        world.tractorX[slot] = snapshot.x(slot);
+        world.tractorY[slot] = snapshot.y(slot);
+        world.tractorRotation[slot] = snapshot.rotation(slot);
+
+        for (int replayed = Math.max(snapshot.inputTick(slot), tick - INPUT_HISTORY) + 1; replayed <= tick; replayed++)
+            simulation.applyKeys(slot, keyHistory[replayed & (INPUT_HISTORY - 1)]);
+
+        // the snapshot includes the input up to its input tick, and was sent a tick after that
+        return tick - snapshot.inputTick(slot) - 1;
+    }
+}
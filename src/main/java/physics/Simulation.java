@@ -0,0 +1,151 @@
+package physics;
+
+import application.Game;
+import application.Grid;
+import model.World;
+
+// Movement of tractors and shots on the game state, no JavaFX involved.
+// The simulation advances in fixed ticks of 1 / tickRate seconds, so speeds are the same at any tick rate.
+public class Simulation {
+    public static final int DEFAULT_TICK_RATE = 60;
+    // per second - the game was tuned at 1.9px, 4.2 degrees and 3px per pulse at 60 pulses per second
+    public static final double MOVEMENT_SPEED = 1.9 * 60, ROTATION_SPEED = 4.2 * 60;
+    public static final double SHOT_SPEED = 3 * 60, SHOT_RADIUS = 4.;
+    public static final double SHOT_LIFETIME = 5; // seconds
+    public static final int MAX_ACTIVE_SHOTS = 6; // per player
+    private static final double HALF_WIDTH = Game.PLAYER_WIDTH / 2, HALF_HEIGHT = Game.PLAYER_HEIGHT / 2;
+    private static final double SHOT_DISTANCE_FROM_TRACTOR_CENTER = HALF_WIDTH + SHOT_RADIUS;
+    // shot IDs are the player ID followed by a sequence number, so every player can number their shots without asking anyone
+    private static final int SHOT_SEQUENCE_BITS = 20;
+
+    public final World world;
+    public final Grid grid;
+    public final int tickRate;
+    public final double tickDuration; // seconds
+    public final int shotLifetimeTicks;
+
+    public Simulation(World world, Grid grid, int tickRate) {
+        this.world = world;
+        this.grid = grid;
+        this.tickRate = tickRate;
+        tickDuration = 1.0 / tickRate;
+        shotLifetimeTicks = (int) Math.round(SHOT_LIFETIME * tickRate);
+    }
+
+    // naive collision detection - undo movement if colliding with wall. Returns whether the tractor moved
+    public boolean move(int slot, boolean forwards) {
+        double angle = Math.toRadians(world.tractorRotation[slot]);
+        double dX = Math.cos(angle) * MOVEMENT_SPEED * tickDuration * (forwards ? 1 : -1);
+        double dY = Math.sin(angle) * MOVEMENT_SPEED * tickDuration * (forwards ? 1 : -1);
+
+        world.tractorX[slot] += dX;
+        world.tractorY[slot] += dY;
+
+        if (isWallCollision(slot)) {
+            world.tractorX[slot] -= dX;
+            world.tractorY[slot] -= dY;
+            return false;
+        }
+
+        return true;
+    }
+
+    public boolean rotate(int slot, boolean clockwise) {
+        double dAngle = ROTATION_SPEED * tickDuration * (clockwise ? 1 : -1);
+        world.tractorRotation[slot] += dAngle;
+
+        if (isWallCollision(slot)) {
+            world.tractorRotation[slot] -= dAngle; // undo rotation
+            return false;
+        }
+
+        return true;
+    }
+
+    // apply a bitmask of keys pressed ... up, down, left, right for one tick. Returns whether the tractor moved
+    public boolean applyKeys(int slot, int keys) {
+        boolean moved = false;
+        if ((keys & (1 << 0)) > 0) moved |= move(slot, true);
+        if ((keys & (1 << 1)) > 0) moved |= move(slot, false);
+        if ((keys & (1 << 2)) > 0) moved |= rotate(slot, false);
+        if ((keys & (1 << 3)) > 0) moved |= rotate(slot, true);
+        return moved;
+    }
+
+    public boolean isWallCollision(int slot) {
+        return grid.isBoxWallCollision(world.tractorX[slot] + HALF_WIDTH, world.tractorY[slot] + HALF_HEIGHT, HALF_WIDTH, HALF_HEIGHT, world.tractorRotation[slot]);
+    }
+
+    // move the shot one step, if it hits a wall change rotation
+    public void moveShot(int i) {
+        world.shotX[i] += world.shotVelocityX[i] * tickDuration;
+        world.shotY[i] += world.shotVelocityY[i] * tickDuration;
+
+        if (grid.isCircleWallCollisionHorizontal(world.shotX[i], world.shotY[i], SHOT_RADIUS))
+            world.setShotRotation(i, invertAngleHorizontal(world.shotRotation[i]), SHOT_SPEED);
+        if (grid.isCircleWallCollisionVertical(world.shotX[i], world.shotY[i], SHOT_RADIUS))
+            world.setShotRotation(i, invertAngleVertical(world.shotRotation[i]), SHOT_SPEED);
+    }
+
+    public static int shotID(int playerID, int sequence) {
+        return (playerID << SHOT_SEQUENCE_BITS) | (sequence & ((1 << SHOT_SEQUENCE_BITS) - 1));
+    }
+
+    // Fires a shot from the tractor in the slot, on the host when it is authoritative. Returns the index of the new shot
+    // in the world, or -1 if the tractor is dead, its player has MAX_ACTIVE_SHOTS shots out or there is no room for it
+    public int fire(int slot, int shotID) {
+        if (!world.alive[slot] || activeShots(world.playerIDs[slot]) >= MAX_ACTIVE_SHOTS)
+            return -1;
+
+        return world.addShot(shotID, world.playerIDs[slot], shotX(slot), shotY(slot), world.tractorRotation[slot], SHOT_SPEED, shotLifetimeTicks);
+    }
+
+    // Place shot in front of tractor
+    public double shotX(int slot) {
+        double centerX = world.tractorX[slot] + HALF_WIDTH;
+        return centerX + Math.cos(Math.toRadians(world.tractorRotation[slot])) * SHOT_DISTANCE_FROM_TRACTOR_CENTER;
+    }
+
+    public double shotY(int slot) {
+        double centerY = world.tractorY[slot] + HALF_HEIGHT;
+        return centerY + Math.sin(Math.toRadians(world.tractorRotation[slot])) * SHOT_DISTANCE_FROM_TRACTOR_CENTER;
+    }
+
+    private int activeShots(int playerID) {
+        int numShots = 0;
+
+        for (int i = 0; i < world.numShots; i++) {
+            if (world.shotPlayerIDs[i] == playerID)
+                numShots++;
+        }
+
+        return numShots;
+    }
+
+    public boolean isShotWallCollision(int i) {
+        return grid.isCircleWallCollision(world.shotX[i], world.shotY[i], SHOT_RADIUS);
+    }
+
+    // slot of a living tractor hit by the shot, or -1. Tractors are tested where the shooter saw them
+    public int hitTractor(int i, LagCompensation lagCompensation) {
+        int shooterSlot = world.slot(world.shotPlayerIDs[i]);
+
+        for (int slot = 0; slot < world.numTractors; slot++) {
+            int rewind = lagCompensation.rewind(shooterSlot, slot);
+
+            if (world.alive[slot] && Collision.circleIntersectsBox(world.shotX[i], world.shotY[i], SHOT_RADIUS,
+                    lagCompensation.x(slot, rewind) + HALF_WIDTH, lagCompensation.y(slot, rewind) + HALF_HEIGHT, HALF_WIDTH, HALF_HEIGHT, lagCompensation.rotation(slot, rewind)))
+                return slot;
+        }
+
+        return -1;
+    }
+
+    private static double invertAngleVertical(double angle) {
+        return (-1 * angle + 180) % 360;
+    }
+
+    private static double invertAngleHorizontal(double angle) {
+        return (-1 * angle);
+    }
+}
@@ -0,0 +1,94 @@
+package physics;
+
+import java.util.Arrays;
+
+// Uniform grid over the maze cells, each cell lists the walls whose bounds overlap it.
+// A query only looks at the cells overlapped by the query shape's bounds, so its cost does not depend on the maze size.
+// The lists are stored flattened: the walls of cell i are cellWalls[cellStart[i] .. cellStart[i + 1] - 1].
+public class WallIndex {
+    private final int rows, cols;
+    private final double cellWidth, cellHeight;
+    private final double[] walls; // {x, y, width, height} per wall
+    private final int[] cellStart;
+    private final int[] cellWalls;
+
+    public WallIndex(double[] walls, int rows, int cols, double width, double height) {
+        this.walls = walls;
+        this.rows = rows;
+        this.cols = cols;
+        cellWidth = width / cols;
+        cellHeight = height / rows;
+
+        // count the walls per cell, turn the counts into start offsets, then fill in the wall indices
+        cellStart = new int[rows * cols + 1];
+
+        for (int i = 0; i < walls.length; i += 4) {
+            for (int row = row(walls[i + 1]); row <= row(walls[i + 1] + walls[i + 3]); row++)
+                for (int col = col(walls[i]); col <= col(walls[i] + walls[i + 2]); col++)
+                    cellStart[row * cols + col + 1]++;
+        }
+
+        for (int cell = 0; cell < rows * cols; cell++)
+            cellStart[cell + 1] += cellStart[cell];
+
+        cellWalls = new int[cellStart[rows * cols]];
+        int[] next = Arrays.copyOf(cellStart, rows * cols);
+
+        for (int i = 0; i < walls.length; i += 4) {
+            for (int row = row(walls[i + 1]); row <= row(walls[i + 1] + walls[i + 3]); row++)
+                for (int col = col(walls[i]); col <= col(walls[i] + walls[i + 2]); col++)
+                    cellWalls[next[row * cols + col]++] = i;
+        }
+    }
+
+    public double[] getWalls() {
+        return walls;
+    }
+
+    public boolean isBoxCollision(double cx, double cy, double halfWidth, double halfHeight, double angleInDegrees) {
+        double angle = Math.toRadians(angleInDegrees);
+        double cos = Math.cos(angle);
+        double sin = Math.sin(angle);
+        double extentX = halfWidth * Math.abs(cos) + halfHeight * Math.abs(sin);
+        double extentY = halfWidth * Math.abs(sin) + halfHeight * Math.abs(cos);
+
+        for (int row = row(cy - extentY); row <= row(cy + extentY); row++) {
+            for (int col = col(cx - extentX); col <= col(cx + extentX); col++) {
+                int cell = row * cols + col;
+
+                for (int j = cellStart[cell]; j < cellStart[cell + 1]; j++) {
+                    int i = cellWalls[j];
+                    if (Collision.boxIntersectsRect(cx, cy, halfWidth, halfHeight, cos, sin, walls[i], walls[i + 1], walls[i + 2], walls[i + 3]))
+                        return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    public boolean isCircleCollision(double cx, double cy, double radius) {
+        for (int row = row(cy - radius); row <= row(cy + radius); row++) {
+            for (int col = col(cx - radius); col <= col(cx + radius); col++) {
+                int cell = row * cols + col;
+
+                for (int j = cellStart[cell]; j < cellStart[cell + 1]; j++) {
+                    int i = cellWalls[j];
+                    if (Collision.circleIntersectsRect(cx, cy, radius, walls[i], walls[i + 1], walls[i + 2], walls[i + 3]))
+                        return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    // positions outside the maze are clamped to the border cells, which is where the outer walls are indexed
+    private int row(double y) {
+        return Math.max(0, Math.min(rows - 1, (int) Math.floor(y / cellHeight)));
+    }
+
+    private int col(double x) {
+        return Math.max(0, Math.min(cols - 1, (int) Math.floor(x / cellWidth)));
+    }
+}
@@ -0,0 +1,87 @@
+package server;
+
+import application.ChatTrimmer;
+import application.GameApplication;
+import application.HostedSpaces;
+import application.RoomDirectory;
+import application.RoomSpace;
+import datatypes.IndexedSpace;
+import listeners.EmptyRoomListener;
+import listeners.ListenerRuntime;
+import org.jspace.ActualField;
+import org.jspace.FormalField;
+import org.jspace.SequentialSpace;
+import org.jspace.SpaceRepository;
+
+// Hosts the lobby and every room and game space in one JVM without JavaFX, so no player has to host anything.
+// Players join the server like any other lobby host, creating a room sends ("create room", playerID, name) to the
+// lobby and the server answers with ("room created", playerID, address).
+// Every room's game is run on the server too, as its authoritative host, see ServerGame. The players only send their
+// input and render the snapshots, so the player who created the room carries no more load than the others. A room and
+// its game space are removed once the last player has left the room, see EmptyRoomListener.
+//
+// usage: java server.DedicatedServer <ip>, where ip is the address players connect to
+public class DedicatedServer {
+    private final String ip;
+    private final SpaceRepository repository = new SpaceRepository();
+    private final HostedSpaces hostedSpaces = new HostedSpaces(repository);
+    private final SequentialSpace lobby = new SequentialSpace();
+    private final ListenerRuntime listeners = new ListenerRuntime("server");
+
+    public DedicatedServer(String ip) {
+        this.ip = ip;
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.out.println("usage: java server.DedicatedServer <ip>");
+            return;
+        }
+
+        new DedicatedServer(args[0]).run();
+    }
+
+    public void run() {
+        try {
+            repository.add("lobby", lobby);
+            repository.addGate(GameApplication.PROTOCOL + ip + GameApplication.PORT + "/?keep");
+
+            lobby.put("dedicated server");
+            lobby.put("player id", 0);
+            RoomDirectory.create(lobby);
+            System.out.println("Lobby: " + GameApplication.PROTOCOL + ip + GameApplication.PORT + "/lobby?keep");
+
+            while (true) {
+                Object[] request = lobby.get(new ActualField("create room"), new FormalField(Integer.class), new FormalField(String.class));
+                int playerID = (int) request[1];
+                String name = (String) request[2];
+
+                String address = createRoom(playerID, name);
+                lobby.put("room created", playerID, address);
+            }
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        } finally {
+            listeners.stop();
+            repository.shutDown();
+        }
+    }
+
+    private String createRoom(int playerID, String name) throws InterruptedException {
+        SequentialSpace roomSpace = new SequentialSpace();
+        IndexedSpace gameSpace = new IndexedSpace();
+        String roomSpaceName = hostedSpaces.add("room", roomSpace);
+        String gameSpaceName = hostedSpaces.add("game", gameSpace);
+
+        String address = RoomSpace.address(ip, roomSpaceName);
+        RoomSpace.create(roomSpace, address, RoomSpace.uri(RoomSpace.address(ip, gameSpaceName)), playerID);
+        RoomDirectory.addRoom(lobby, address, name, 1);
+        ListenerRuntime roomListeners = new ListenerRuntime(roomSpaceName);
+        roomListeners.start(new ChatTrimmer(roomSpace), "chat trimmer");
+        roomListeners.start(new ServerGame(roomSpace, gameSpace), "game " + gameSpaceName);
+        listeners.start(new EmptyRoomListener(lobby, roomSpace, hostedSpaces, roomSpaceName, gameSpaceName, roomListeners), "empty room listener " + roomSpaceName);
+        System.out.println("Created " + address + " for player " + playerID + ", hosting " + hostedSpaces);
+
+        return address;
+    }
+}
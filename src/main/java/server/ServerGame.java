@@ -0,0 +1,279 @@
+package server;
+
+import application.Game;
+import application.Grid;
+import application.MazeGenerator;
+import datatypes.ArrayListInt;
+import datatypes.IndexedSpace;
+import model.PositionCodec;
+import model.Snapshot;
+import model.World;
+import org.jspace.ActualField;
+import org.jspace.FormalField;
+import org.jspace.Space;
+import physics.LagCompensation;
+import physics.Simulation;
+
+import java.util.*;
+
+// The game of a room on a dedicated server. The server is the game's authoritative host: it runs the simulation
+// without rendering at a fixed tick rate, moves every tractor by its player's input, fires their shots, judges hits and
+// sends every player a snapshot per tick. The players only predict their own tractor and render, see
+// Game.authoritative, so the room's creator plays like everyone else.
+// The tuples are the ones a player hosting an authoritative game uses, so the players can't tell the difference:
+// ("authoritative", true) and ("tick rate", rate) for the whole game, ("maze", ...) per round, ("input", ...) from the
+// players and ("snapshot", ...), ("kill", ...) and ("game end", playerID) to them. A player's first position of a round
+// is where its tractor spawned.
+// Like a player-hosted game, rounds are played until every player has left the room. A player who left is out of the
+// game: its tractor is killed and it isn't waited for any more. So is a player who doesn't send its first position or
+// its ("round done", playerID, round) within PLAYER_TIMEOUT, as its client may be gone without leaving the room.
+public class ServerGame implements Runnable {
+    private static final double WIDTH = 450, HEIGHT = 450; // the game pane, see game-scene-view.fxml
+    private static final int GAME_END_DELAY = 2000; // ms, like GameEndTimer
+    private static final long MAX_CATCH_UP = 250_000_000; // ns, like GameLoop, don't try to catch up on more than this after a stall
+    private static final int PLAYER_TIMEOUT = Integer.getInteger("playerTimeout", 10_000); // ms
+
+    private final Space roomSpace;
+    private final IndexedSpace gameSpace;
+    private final int tickRate = Integer.getInteger("tickRate", Simulation.DEFAULT_TICK_RATE);
+    private final long tickTime = 1_000_000_000L / tickRate; // ns
+    private final Map<Integer, Integer> playerScores = new HashMap<>();
+    private List<Integer> playerIDs;
+    private final Set<Integer> gone = new HashSet<>(); // players who left the room or stopped answering
+    private int round; // counting from 1 once the first round has started, like Game.getRound
+    private World world;
+    private Simulation simulation;
+    private LagCompensation lagCompensation;
+    private int[] shotSequences, shotsFired; // per slot
+    private int tick;
+
+    public ServerGame(Space roomSpace, IndexedSpace gameSpace) {
+        this.roomSpace = roomSpace;
+        this.gameSpace = gameSpace;
+    }
+
+    @Override
+    public void run() {
+        try {
+            gameSpace.put("authoritative", true);
+            gameSpace.put("tick rate", tickRate);
+
+            roomSpace.query(new ActualField("start game"));
+            ArrayListInt playerIdList = (ArrayListInt) roomSpace.query(new ActualField("playerIdList"), new FormalField(ArrayListInt.class))[1];
+
+            for (int playerID : playerIdList)
+                playerScores.put(playerID, 0);
+
+            // the players' slots are in the order of the players' map, see GameApplication.launchGame
+            playerIDs = new ArrayList<>(playerScores.keySet());
+
+            // the room and game spaces are removed once everyone has left, see listeners.EmptyRoomListener
+            while (gone.size() < playerIDs.size()) {
+                Integer winnerPlayerID = playRound();
+
+                if (winnerPlayerID != null)
+                    playerScores.merge(winnerPlayerID, 1, Integer::sum);
+            }
+        } catch (InterruptedException ignored) {
+            // stopped by the room's ListenerRuntime
+        }
+    }
+
+    // Plays a round until one tractor or none is left, and then GAME_END_DELAY longer. Returns the winner, if any
+    private Integer playRound() throws InterruptedException {
+        startRound();
+
+        int ticksLeft = -1; // until the round ends, once it is decided
+        long next = System.nanoTime();
+
+        while (ticksLeft != 0) {
+            if (tick % tickRate == 0)
+                checkPlayers();
+
+            tick();
+
+            if (ticksLeft > 0)
+                ticksLeft--;
+            else if (world.numAlive() <= 1)
+                ticksLeft = GAME_END_DELAY * tickRate / 1000;
+
+            next += tickTime;
+            long sleep = next - System.nanoTime();
+
+            if (sleep > 0)
+                Thread.sleep(sleep / 1_000_000, (int) (sleep % 1_000_000));
+            else if (sleep < -MAX_CATCH_UP)
+                next = System.nanoTime();
+        }
+
+        for (int playerID : playerIDs)
+            if (!gone.contains(playerID))
+                gameSpace.put("game end", playerID);
+
+        finishRound();
+
+        for (int slot = 0; slot < world.numTractors; slot++) {
+            if (world.alive[slot])
+                return world.playerIDs[slot];
+        }
+
+        return null;
+    }
+
+    // Every player puts ("round done", playerID, round) once it has stopped the round and sent everything of it, see
+    // Game.stopRound. Then whatever is left of the round is removed
+    private void finishRound() throws InterruptedException {
+        for (int playerID : playerIDs) {
+            if (!gone.contains(playerID) && gameSpace.get(PLAYER_TIMEOUT, new ActualField("round done"), new ActualField(playerID), new ActualField(round)) == null)
+                gone.add(playerID);
+        }
+
+        gameSpace.getAll(new ActualField("round done"), new FormalField(Integer.class), new ActualField(round));
+        gameSpace.getAll(new ActualField("position"), new FormalField(Integer.class), new FormalField(Integer.class), new FormalField(Integer.class), new FormalField(byte[].class), new ActualField(round));
+        gameSpace.getAll(new ActualField("input"), new FormalField(Integer.class), new FormalField(Integer.class), new FormalField(Integer.class), new FormalField(Integer.class), new FormalField(Integer.class), new ActualField(round));
+        gameSpace.getAll(new ActualField("kill"), new FormalField(Integer.class), new FormalField(Integer.class), new FormalField(Integer.class), new ActualField(round));
+        gameSpace.getAll(new ActualField("snapshot"), new FormalField(Integer.class), new FormalField(Integer.class), new FormalField(double[].class), new FormalField(int[].class), new FormalField(double[].class), new FormalField(int[].class), new ActualField(round));
+    }
+
+    private void startRound() throws InterruptedException {
+        // only the seed of the maze is shared, every player generates the maze from it
+        long seed = new Random().nextLong();
+        gameSpace.getp(new ActualField("maze"), new ActualField(round - 1), new FormalField(Long.class), new FormalField(Integer.class), new FormalField(Integer.class), new FormalField(Integer.class));
+        gameSpace.put("maze", round, seed, Game.MAZE_ROWS, Game.MAZE_COLS, Game.MAZE_WALLS_TO_REMOVE);
+        Grid grid = new Grid(WIDTH, HEIGHT, MazeGenerator.generate(seed, Game.MAZE_ROWS, Game.MAZE_COLS, Game.MAZE_WALLS_TO_REMOVE));
+        round++;
+
+        world = new World(playerIDs);
+        simulation = new Simulation(world, grid, tickRate);
+        lagCompensation = new LagCompensation(world, tickRate, -1, 0); // the server has no tractor of its own
+        shotSequences = new int[world.numTractors];
+        shotsFired = new int[world.numTractors];
+        tick = 0;
+        checkPlayers();
+
+        // every player spawns its own tractor and sends where with its first position
+        for (int slot = 0; slot < world.numTractors; slot++) {
+            if (!world.alive[slot])
+                continue;
+
+            Object[] position = gameSpace.query(PLAYER_TIMEOUT, new ActualField("position"), new ActualField(world.playerIDs[slot]), new ActualField(0), new ActualField(0), new FormalField(byte[].class), new ActualField(round));
+
+            if (position == null) {
+                gone.add(world.playerIDs[slot]);
+                kill(slot, -1);
+                continue;
+            }
+
+            PositionCodec decoder = new PositionCodec();
+            decoder.decode((byte[]) position[4]);
+            world.setTractor(slot, decoder.x(), decoder.y(), decoder.rotation());
+        }
+    }
+
+    // every second, players who left the room are out of the game
+    private void checkPlayers() throws InterruptedException {
+        ArrayListInt inRoom = (ArrayListInt) roomSpace.query(new ActualField("playerIdList"), new FormalField(ArrayListInt.class))[1];
+
+        for (int slot = 0; slot < world.numTractors; slot++) {
+            int playerID = world.playerIDs[slot];
+
+            if (!inRoom.contains(playerID))
+                gone.add(playerID);
+
+            if (gone.contains(playerID) && world.alive[slot])
+                kill(slot, -1);
+        }
+    }
+
+    private void tick() throws InterruptedException {
+        applyInput();
+
+        for (int slot = 0; slot < world.numTractors; slot++) {
+            if (!world.alive[slot])
+                continue;
+
+            simulation.applyKeys(slot, world.keys[slot]);
+            world.inputTicks[slot]++;
+        }
+
+        lagCompensation.record();
+        updateShots();
+        sendSnapshot();
+    }
+
+    // the input of every player since the last tick: the keys pressed from the player's tick on, the number of shots
+    // fired this round and the player's round trip, see MovementController.setRemoteInput
+    private void applyInput() throws InterruptedException {
+        List<Object[]> inputs = gameSpace.getAll(new ActualField("input"), new FormalField(Integer.class), new FormalField(Integer.class), new FormalField(Integer.class), new FormalField(Integer.class), new FormalField(Integer.class), new ActualField(round));
+
+        for (Object[] input : inputs) {
+            int slot = world.slot((int) input[1]);
+
+            if (slot < 0 || !world.alive[slot])
+                continue;
+
+            // the keys are applied from the next tick on, which is the player's tick
+            world.inputTicks[slot] = (int) input[2] - 1;
+            world.keys[slot] = (int) input[3];
+            lagCompensation.setViewLag(slot, (int) input[5]);
+
+            for (; shotsFired[slot] < (int) input[4]; shotsFired[slot]++)
+                fire(slot);
+        }
+    }
+
+    private void fire(int slot) throws InterruptedException {
+        int index = simulation.fire(slot, Simulation.shotID(world.playerIDs[slot], shotSequences[slot]));
+
+        if (index == -1)
+            return;
+
+        shotSequences[slot]++;
+
+        // if a player shoots directly into a wall, they die immediately
+        if (simulation.isShotWallCollision(index))
+            kill(slot, index);
+    }
+
+    // Advance every shot one tick. Shots are removed by moving the last one into their place,
+    // so going backwards means every shot is visited exactly once
+    private void updateShots() throws InterruptedException {
+        for (int index = world.numShots - 1; index >= 0; index--) {
+            if (--world.shotTicksLeft[index] < 0) {
+                world.removeShot(index);
+                continue;
+            }
+
+            simulation.moveShot(index);
+            int slot = simulation.hitTractor(index, lagCompensation);
+
+            if (slot >= 0)
+                kill(slot, index);
+        }
+    }
+
+    // the tractor in the slot was hit by the shot at the index, or its player left the game if the index is -1
+    private void kill(int slot, int index) throws InterruptedException {
+        int shotID = index == -1 ? -1 : world.shotIDs[index];
+
+        for (int playerID : playerIDs)
+            if (!gone.contains(playerID))
+                gameSpace.put("kill", playerID, world.playerIDs[slot], shotID, round);
+
+        world.alive[slot] = false;
+
+        if (index != -1)
+            world.removeShot(index);
+    }
+
+    private void sendSnapshot() throws InterruptedException {
+        Snapshot snapshot = Snapshot.capture(world, tick++);
+
+        // remove the last snapshots if nobody has read them yet, they are outdated now. Only those, see SnapshotBroadcaster
+        gameSpace.getAll(new ActualField("snapshot"), new FormalField(Integer.class), new ActualField(snapshot.tick - 1), new FormalField(double[].class), new FormalField(int[].class), new FormalField(double[].class), new FormalField(int[].class), new ActualField(round));
+
+        for (int playerID : playerIDs)
+            if (!gone.contains(playerID))
+                gameSpace.put("snapshot", playerID, snapshot.tick, snapshot.tractors, snapshot.tractorStates, snapshot.shots, snapshot.shotStates, round);
+    }
+}
@@ -0,0 +1,98 @@
+package application;
+
+import datatypes.IndexedSpace;
+import org.jspace.ActualField;
+import org.jspace.FormalField;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The chat log of a room, read by a Receiver per client and trimmed by the room's ChatTrimmer, see ChatClient
+public class ChatLogTest {
+    private static final int INTERVAL = Receiver.CURSOR_INTERVAL;
+
+    @Test
+    public void receiverReadsInOrderAndWritesItsCursorBack() throws InterruptedException {
+        IndexedSpace chat = new IndexedSpace();
+        BlockingQueue<String> received = new LinkedBlockingQueue<>();
+        chat.put("chat cursor", 1, 0);
+        Thread receiver = new Thread(new Receiver(chat, received::add, 1, 0));
+        receiver.start();
+
+        try {
+            for (int seq = 0; seq < INTERVAL + 2; seq++)
+                chat.put("chat message", seq, "message " + seq);
+
+            for (int seq = 0; seq < INTERVAL + 2; seq++)
+                assertEquals("message " + seq, received.poll(1, TimeUnit.SECONDS));
+
+            List<Object[]> cursors = chat.queryAll(new ActualField("chat cursor"), new ActualField(1), new FormalField(Integer.class));
+            assertEquals(1, cursors.size());
+            assertEquals(INTERVAL, cursors.get(0)[2]);
+        } finally {
+            receiver.interrupt();
+        }
+    }
+
+    // messages are removed once every cursor has passed them, whoever is left in the room
+    @Test
+    public void trimmerRemovesMessagesEveryCursorHasPassed() throws InterruptedException {
+        IndexedSpace chat = new IndexedSpace();
+        chat.put("chat cursor", 1, 0);
+        chat.put("chat cursor", 2, 0);
+        Thread trimmer = new Thread(new ChatTrimmer(chat));
+        trimmer.start();
+
+        try {
+            for (int seq = 0; seq < 2 * INTERVAL; seq++)
+                chat.put("chat message", seq, "message " + seq);
+
+            Thread.sleep(100); // let the trimmer read them
+            assertEquals(2 * INTERVAL, messages(chat));
+
+            moveCursor(chat, 1, 0, 2 * INTERVAL);
+            moveCursor(chat, 2, 0, INTERVAL);
+            for (int seq = 2 * INTERVAL; seq < 3 * INTERVAL; seq++)
+                chat.put("chat message", seq, "message " + seq);
+
+            assertTrue(trimmedTo(chat, INTERVAL));
+            assertEquals(2 * INTERVAL, messages(chat));
+
+            // the second client leaves
+            chat.getp(new ActualField("chat cursor"), new ActualField(2), new FormalField(Integer.class));
+            for (int seq = 3 * INTERVAL; seq < 4 * INTERVAL; seq++)
+                chat.put("chat message", seq, "message " + seq);
+
+            assertTrue(trimmedTo(chat, 2 * INTERVAL));
+        } finally {
+            trimmer.interrupt();
+        }
+    }
+
+    private static void moveCursor(IndexedSpace chat, int player, int from, int to) throws InterruptedException {
+        chat.put("chat cursor", player, to);
+        chat.getp(new ActualField("chat cursor"), new ActualField(player), new ActualField(from));
+    }
+
+    private static int messages(IndexedSpace chat) throws InterruptedException {
+        return chat.queryAll(new ActualField("chat message"), new FormalField(Integer.class), new FormalField(String.class)).size();
+    }
+
+    // waits for the messages before seq to be removed, and checks the one at seq is still there
+    private static boolean trimmedTo(IndexedSpace chat, int seq) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            if (chat.queryp(new ActualField("chat message"), new ActualField(seq - 1), new FormalField(String.class)) == null)
+                return chat.queryp(new ActualField("chat message"), new ActualField(seq), new FormalField(String.class)) != null
+                        && chat.queryp(new ActualField("chat message"), new ActualField(0), new FormalField(String.class)) == null;
+
+            Thread.sleep(10);
+        }
+
+        return false;
+    }
+}
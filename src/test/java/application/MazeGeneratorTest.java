@@ -0,0 +1,93 @@
+package application;
+
+import datatypes.MazeWalls;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MazeGeneratorTest {
+    private static final int[] ROW_STEP = {-1, 0, 1, 0}, COL_STEP = {0, 1, 0, -1}; // by direction
+
+    // every player builds the maze of a round from the seed the host shares, see Game.newRound
+    @Test
+    public void sameSeedSameMaze() {
+        for (long seed : new long[]{0, 1, 42, -7, Long.MAX_VALUE}) {
+            MazeWalls maze = MazeGenerator.generate(seed, Grid.DEFAULT_ROWS, Grid.DEFAULT_COLS, Grid.DEFAULT_WALLS_TO_REMOVE);
+            MazeWalls again = MazeGenerator.generate(seed, Grid.DEFAULT_ROWS, Grid.DEFAULT_COLS, Grid.DEFAULT_WALLS_TO_REMOVE);
+
+            assertArrayEquals(maze.getWords(), again.getWords(), "seed " + seed);
+        }
+    }
+
+    @Test
+    public void seedsChooseDifferentMazes() {
+        long[] words = MazeGenerator.generate(1, Grid.DEFAULT_ROWS, Grid.DEFAULT_COLS, Grid.DEFAULT_WALLS_TO_REMOVE).getWords();
+        int same = 0;
+
+        for (long seed = 2; seed < 12; seed++) {
+            if (Arrays.equals(words, MazeGenerator.generate(seed, Grid.DEFAULT_ROWS, Grid.DEFAULT_COLS, Grid.DEFAULT_WALLS_TO_REMOVE).getWords()))
+                same++;
+        }
+
+        assertEquals(0, same);
+    }
+
+    // a spanning tree of the squares, then wallsToRemove more walls are removed
+    @Test
+    public void everySquareIsReachable() {
+        for (int[] size : new int[][]{{1, 1}, {1, 9}, {9, 1}, {9, 9}, {20, 30}}) {
+            int rows = size[0], cols = size[1];
+            MazeWalls maze = MazeGenerator.generate(42, rows, cols, Grid.DEFAULT_WALLS_TO_REMOVE);
+            int spanningTreeWalls = maze.numWalls() - (rows * cols - 1);
+
+            assertEquals(rows * cols, reachable(maze), rows + "x" + cols);
+            assertEquals(Math.max(0, spanningTreeWalls - Grid.DEFAULT_WALLS_TO_REMOVE), standingWalls(maze), rows + "x" + cols);
+        }
+    }
+
+    @Test
+    public void noSquaresIsAnError() {
+        assertThrows(IllegalArgumentException.class, () -> MazeGenerator.generate(42, 0, 9, 0));
+    }
+
+    private static int reachable(MazeWalls maze) {
+        int rows = maze.getRows(), cols = maze.getCols();
+        boolean[] visited = new boolean[rows * cols];
+        Deque<Integer> queue = new ArrayDeque<>();
+        visited[0] = true;
+        queue.add(0);
+        int reached = 0;
+
+        while (!queue.isEmpty()) {
+            int square = queue.poll();
+            int row = square / cols, col = square % cols;
+            reached++;
+
+            for (int dir = 0; dir < 4; dir++) {
+                int next = (row + ROW_STEP[dir]) * cols + col + COL_STEP[dir];
+
+                if (maze.isConnected(row, col, dir) && !visited[next]) {
+                    visited[next] = true;
+                    queue.add(next);
+                }
+            }
+        }
+
+        return reached;
+    }
+
+    private static int standingWalls(MazeWalls maze) {
+        int walls = 0;
+
+        for (int wall = 0; wall < maze.numWalls(); wall++) {
+            if (maze.isWall(wall))
+                walls++;
+        }
+
+        return walls;
+    }
+}
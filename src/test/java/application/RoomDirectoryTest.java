@@ -0,0 +1,68 @@
+package application;
+
+import datatypes.IndexedSpace;
+import org.jspace.ActualField;
+import org.jspace.FormalField;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RoomDirectoryTest {
+
+    // every change is an event with the next version, a removed room has REMOVED players
+    @Test
+    public void changesAreEvents() throws InterruptedException {
+        IndexedSpace lobbySpace = new IndexedSpace();
+        RoomDirectory.create(lobbySpace);
+        RoomDirectory.addRoom(lobbySpace, "room1", "a", 1);
+        RoomDirectory.changePlayers(lobbySpace, "room1", 1);
+        RoomDirectory.changePlayers(lobbySpace, "room2", 1); // no such room, no event
+        RoomDirectory.removeRoom(lobbySpace, "room1");
+        RoomDirectory.removeRoom(lobbySpace, "room1");
+
+        assertEquals(3, RoomDirectory.version(lobbySpace));
+        assertArrayEquals(new Object[]{"room event", 1, "room1", "a", 1}, RoomDirectory.event(lobbySpace, 1));
+        assertArrayEquals(new Object[]{"room event", 2, "room1", "a", 2}, RoomDirectory.event(lobbySpace, 2));
+        assertArrayEquals(new Object[]{"room event", 3, "room1", "a", RoomDirectory.REMOVED}, RoomDirectory.event(lobbySpace, 3));
+        assertNull(lobbySpace.queryp(new ActualField("room"), new FormalField(String.class), new FormalField(String.class), new FormalField(Integer.class)));
+    }
+
+    // a client following the events blocks until the next one, see RoomListListener
+    @Test
+    public void followEvents() throws Exception {
+        IndexedSpace lobbySpace = new IndexedSpace();
+        RoomDirectory.create(lobbySpace);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            int version = RoomDirectory.version(lobbySpace);
+            Future<Object[]> event = executor.submit(() -> RoomDirectory.event(lobbySpace, version + 1));
+            Thread.sleep(100); // let it block
+            assertFalse(event.isDone());
+
+            RoomDirectory.addRoom(lobbySpace, "room1", "a", 1);
+            assertArrayEquals(new Object[]{"room event", 1, "room1", "a", 1}, event.get(1, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // old events are removed, only the last HISTORY are kept
+    @Test
+    public void historyIsBounded() throws InterruptedException {
+        IndexedSpace lobbySpace = new IndexedSpace();
+        RoomDirectory.create(lobbySpace);
+        RoomDirectory.addRoom(lobbySpace, "room1", "a", 0);
+
+        for (int i = 0; i < 1000; i++)
+            RoomDirectory.changePlayers(lobbySpace, "room1", 1);
+
+        assertEquals(256, lobbySpace.queryAll(new ActualField("room event"), new FormalField(Integer.class), new FormalField(String.class), new FormalField(String.class), new FormalField(Integer.class)).size());
+        assertNotNull(lobbySpace.queryp(new ActualField("room event"), new ActualField(1001 - 255), new FormalField(String.class), new FormalField(String.class), new FormalField(Integer.class)));
+    }
+}
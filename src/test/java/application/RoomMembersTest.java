@@ -0,0 +1,60 @@
+package application;
+
+import datatypes.ArrayListInt;
+import datatypes.IndexedSpace;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RoomMembersTest {
+
+    @Test
+    public void joinAndLeave() throws InterruptedException {
+        IndexedSpace roomSpace = new IndexedSpace();
+        RoomMembers.create(roomSpace);
+        RoomMembers.join(roomSpace, 1, "a");
+        RoomMembers.join(roomSpace, 2, "b");
+        RoomMembers.join(roomSpace, 3, "c");
+        RoomMembers.leave(roomSpace, 2, "b");
+        RoomMembers.leave(roomSpace, 2, "b"); // already left, no event
+
+        ArrayList<String> names = new ArrayList<>();
+        ArrayListInt ids = new ArrayListInt();
+        assertEquals(4, RoomMembers.read(roomSpace, names, ids));
+        assertEquals(List.of("a", "c"), names);
+        assertEquals(List.of(1, 3), ids);
+    }
+
+    // a client reads the players once and then follows the events from that version on, see RoomPlayerListener
+    @Test
+    public void followEvents() throws InterruptedException {
+        IndexedSpace roomSpace = new IndexedSpace();
+        RoomMembers.create(roomSpace);
+        RoomMembers.join(roomSpace, 1, "a");
+
+        ArrayList<String> names = new ArrayList<>();
+        ArrayListInt ids = new ArrayListInt();
+        int version = RoomMembers.read(roomSpace, names, ids);
+
+        RoomMembers.join(roomSpace, 2, "b");
+        RoomMembers.leave(roomSpace, 1, "a");
+
+        Object[] event = RoomMembers.event(roomSpace, version + 1);
+        assertArrayEquals(new Object[]{"member event", version + 1, 2, "b", true}, event);
+        event = RoomMembers.event(roomSpace, version + 2);
+        assertArrayEquals(new Object[]{"member event", version + 2, 1, "a", false}, event);
+        assertEquals(List.of("a"), names);
+    }
+
+    @Test
+    public void namesAreCopied() {
+        ArrayList<String> list = new ArrayList<>(List.of("a", "b"));
+        ArrayList<String> names = RoomMembers.names(new Object[]{"playerNameList", list});
+
+        assertEquals(list, names);
+        assertNotSame(list, names);
+    }
+}
@@ -0,0 +1,99 @@
+package broadcasters;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BroadcastSenderTest {
+    private static final int CAPACITY = 256; // see BroadcastSender
+
+    @Test
+    public void sendsInOrder() throws InterruptedException {
+        BroadcastSender sender = new BroadcastSender("test");
+        List<Integer> sent = Collections.synchronizedList(new ArrayList<>());
+
+        for (int i = 0; i < 100; i++) {
+            int broadcast = i;
+            sender.send(() -> sent.add(broadcast));
+        }
+
+        sender.flush();
+        sender.stop();
+
+        assertEquals(100, sent.size());
+        for (int i = 0; i < 100; i++)
+            assertEquals(i, sent.get(i));
+    }
+
+    // only the latest broadcast of a key is sent, in the place of the first one waiting
+    @Test
+    public void coalescesByKey() throws InterruptedException {
+        BroadcastSender sender = new BroadcastSender("test");
+        CountDownLatch blocked = new CountDownLatch(1);
+        List<String> sent = Collections.synchronizedList(new ArrayList<>());
+        sender.send(() -> await(blocked));
+
+        sender.sendLatest("position", () -> sent.add("position 1"));
+        sender.send(() -> sent.add("shot"));
+        sender.sendLatest("position", () -> sent.add("position 2"));
+        sender.sendLatest("position", () -> sent.add("position 3"));
+        sender.sendLatest("snapshot", () -> sent.add("snapshot"));
+        blocked.countDown();
+        sender.flush();
+
+        assertEquals(List.of("position 3", "shot", "snapshot"), sent);
+        assertEquals(2, sender.getCoalesced());
+        assertEquals(0, sender.getDropped());
+
+        sender.sendLatest("position", () -> sent.add("position 4"));
+        sender.flush();
+        sender.stop();
+
+        assertEquals("position 4", sent.get(3));
+    }
+
+    // a full queue drops broadcasts instead of blocking, a dropped key is queued again by its next broadcast
+    @Test
+    public void dropsOnAFullQueue() throws InterruptedException {
+        BroadcastSender sender = new BroadcastSender("test");
+        CountDownLatch taken = new CountDownLatch(1), blocked = new CountDownLatch(1);
+        List<String> sent = Collections.synchronizedList(new ArrayList<>());
+        sender.send(() -> {
+            taken.countDown();
+            await(blocked);
+        });
+        assertTrue(taken.await(1, TimeUnit.SECONDS));
+
+        for (int i = 0; i < CAPACITY; i++)
+            sender.send(() -> {});
+
+        assertEquals(CAPACITY, sender.getQueueDepth());
+        sender.send(() -> sent.add("shot"));
+        sender.sendLatest("position", () -> sent.add("position 1"));
+        assertEquals(2, sender.getDropped());
+        assertEquals(CAPACITY, sender.getMaxQueueDepth());
+
+        blocked.countDown();
+        sender.flush();
+        sender.sendLatest("position", () -> sent.add("position 2"));
+        sender.flush();
+        sender.stop();
+
+        assertEquals(List.of("position 2"), sent);
+        assertEquals(0, sender.getCoalesced());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package datatypes;
+
+import org.jspace.ActualField;
+import org.jspace.FormalField;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The semantics the game relies on from its game space, the same as jSpace's SequentialSpace
+public class IndexedSpaceTest {
+
+    @Test
+    public void matchesActualFieldsInAnyPosition() throws InterruptedException {
+        IndexedSpace space = new IndexedSpace();
+        space.put("kill", 1, 7, 100, 1);
+        space.put("kill", 2, 7, 100, 1);
+        space.put("kill", 2, 7, 101, 2);
+
+        Object[] kill = space.get(new ActualField("kill"), new ActualField(2), new FormalField(Integer.class), new FormalField(Integer.class), new ActualField(2));
+        assertArrayEquals(new Object[]{"kill", 2, 7, 101, 2}, kill);
+        assertNull(space.getp(new ActualField("kill"), new ActualField(3), new FormalField(Integer.class), new FormalField(Integer.class), new ActualField(1)));
+        assertNull(space.getp(new ActualField("kill"), new ActualField(1), new FormalField(Integer.class), new FormalField(Integer.class), new ActualField(2)));
+        assertEquals(2, space.size());
+    }
+
+    @Test
+    public void matchesTypesAndArity() {
+        IndexedSpace space = new IndexedSpace();
+        space.put("tick rate", 60L);
+        space.put("tick rate", 60, 1);
+
+        assertNull(space.queryp(new ActualField("tick rate"), new FormalField(Integer.class)));
+        assertNotNull(space.queryp(new ActualField("tick rate"), new FormalField(Long.class)));
+        assertNull(space.queryp(new ActualField("tick rate"), new ActualField(60L), new ActualField(1)));
+        assertNotNull(space.queryp(new ActualField("tick rate"), new ActualField(60), new ActualField(1)));
+    }
+
+    // tuples are bucketed by their first field, a template starting with a formal field looks in every bucket of its arity
+    @Test
+    public void matchesTemplatesStartingWithAFormalField() throws InterruptedException {
+        IndexedSpace space = new IndexedSpace();
+        space.put(1, 0, new byte[]{1});
+        space.put("snapshot", 0, new byte[]{2});
+        space.put(2, 0, new byte[]{3});
+
+        Object[] position = space.query(new ActualField(2), new ActualField(0), new FormalField(byte[].class));
+        assertArrayEquals(new byte[]{3}, (byte[]) position[2]);
+        assertEquals(2, space.getAll(new FormalField(Integer.class), new FormalField(Integer.class), new FormalField(byte[].class)).size());
+        assertEquals(1, space.size());
+    }
+
+    @Test
+    public void oldestMatchFirst() {
+        IndexedSpace space = new IndexedSpace();
+
+        for (int i = 0; i < 10; i++)
+            space.put("input", i % 2, i);
+
+        for (int i = 1; i < 10; i += 2)
+            assertEquals(i, space.getp(new ActualField("input"), new ActualField(1), new FormalField(Integer.class))[2]);
+
+        List<Integer> inputs = new ArrayList<>();
+        for (Object[] input : space.getAll(new ActualField("input"), new FormalField(Integer.class), new FormalField(Integer.class)))
+            inputs.add((Integer) input[2]);
+
+        assertEquals(List.of(0, 2, 4, 6, 8), inputs);
+        assertEquals(0, space.size());
+    }
+
+    @Test
+    public void queriesLeaveTuples() throws InterruptedException {
+        IndexedSpace space = new IndexedSpace();
+        space.put("maze", 0, 42L);
+
+        assertNotNull(space.query(new ActualField("maze"), new ActualField(0), new FormalField(Long.class)));
+        assertEquals(1, space.queryAll(new ActualField("maze"), new FormalField(Integer.class), new FormalField(Long.class)).size());
+        assertEquals(1, space.size());
+    }
+
+    // a put wakes every waiting query it matches, but only the first waiting get
+    @Test
+    public void putHandsTupleToWaiters() throws Exception {
+        IndexedSpace space = new IndexedSpace();
+        ExecutorService executor = Executors.newCachedThreadPool();
+
+        try {
+            Future<Object[]> query = executor.submit(() -> space.query(new ActualField("game end"), new ActualField(1)));
+            Future<Object[]> get = executor.submit(() -> space.get(new ActualField("game end"), new FormalField(Integer.class)));
+            Future<Object[]> other = executor.submit(() -> space.get(new ActualField("game end"), new ActualField(2)));
+            Thread.sleep(100); // let them block
+
+            space.put("game end", 1);
+
+            assertArrayEquals(new Object[]{"game end", 1}, query.get(1, TimeUnit.SECONDS));
+            assertArrayEquals(new Object[]{"game end", 1}, get.get(1, TimeUnit.SECONDS));
+            assertFalse(other.isDone());
+            assertEquals(0, space.size());
+
+            space.put("game end", 2);
+            assertArrayEquals(new Object[]{"game end", 2}, other.get(1, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // a listener of the host is stopped by an interrupt, the wake up put afterwards is left for the cleanup, see Game.stopRound
+    @Test
+    public void interruptedGetLeavesLaterTuples() throws Exception {
+        IndexedSpace space = new IndexedSpace();
+        BlockingQueue<Throwable> thrown = new LinkedBlockingQueue<>();
+        Thread listener = new Thread(() -> {
+            try {
+                space.get(new ActualField("kill"), new ActualField(1));
+            } catch (Throwable e) {
+                thrown.add(e);
+            }
+        });
+
+        listener.start();
+        Thread.sleep(100); // let it block
+        listener.interrupt();
+        listener.join(1000);
+
+        assertInstanceOf(InterruptedException.class, thrown.poll());
+        space.put("kill", 1);
+        assertNotNull(space.getp(new ActualField("kill"), new ActualField(1)));
+    }
+
+    // the dedicated server gives up on a player who doesn't answer, see server.ServerGame.finishRound
+    @Test
+    public void timedGetGivesUp() throws Exception {
+        IndexedSpace space = new IndexedSpace();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            assertNull(space.get(50, new ActualField("round done"), new ActualField(1), new ActualField(1)));
+            assertNull(space.query(50, new ActualField("round done"), new ActualField(1), new ActualField(1)));
+
+            // the waiter that gave up doesn't take the tuple put afterwards
+            space.put("round done", 1, 1);
+            assertNotNull(space.query(50, new ActualField("round done"), new ActualField(1), new ActualField(1)));
+            assertNotNull(space.get(50, new ActualField("round done"), new ActualField(1), new ActualField(1)));
+            assertEquals(0, space.size());
+
+            Future<Object[]> get = executor.submit(() -> space.get(5000, new ActualField("round done"), new ActualField(2), new ActualField(1)));
+            Thread.sleep(100); // let it block
+            space.put("round done", 2, 1);
+
+            assertArrayEquals(new Object[]{"round done", 2, 1}, get.get(1, TimeUnit.SECONDS));
+            assertEquals(0, space.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
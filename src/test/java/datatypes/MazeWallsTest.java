@@ -0,0 +1,79 @@
+package datatypes;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MazeWallsTest {
+
+    @Test
+    public void allWallsAtFirst() {
+        MazeWalls maze = new MazeWalls(9, 9);
+
+        assertEquals(9 * 8 + 8 * 9, maze.numWalls());
+        assertEquals(3, maze.getWords().length); // 144 bits
+
+        for (int wall = 0; wall < maze.numWalls(); wall++)
+            assertTrue(maze.isWall(wall));
+
+        // bits past the last wall stay clear, so equal mazes have equal words
+        assertEquals(0, maze.getWords()[2] >>> (maze.numWalls() - 128));
+    }
+
+    // the wall between two squares is the same one seen from either side
+    @Test
+    public void connectBothWays() {
+        MazeWalls maze = new MazeWalls(3, 4);
+        maze.connect(1, 1, MazeWalls.EAST);
+        maze.connect(1, 1, 2, 1);
+
+        assertTrue(maze.isConnected(1, 2, MazeWalls.WEST));
+        assertTrue(maze.isConnected(1, 2, 1, 1));
+        assertTrue(maze.isConnected(2, 1, MazeWalls.NORTH));
+        assertFalse(maze.isConnected(1, 1, MazeWalls.NORTH));
+        assertFalse(maze.isConnected(1, 1, MazeWalls.WEST));
+        assertEquals(maze.numWalls() - 2, standingWalls(maze));
+    }
+
+    // there are no inner walls on the border, so nothing leads out of the maze
+    @Test
+    public void borderIsClosed() {
+        MazeWalls maze = new MazeWalls(3, 4);
+        maze.connect(0, 0, MazeWalls.NORTH);
+        maze.connect(2, 3, MazeWalls.EAST);
+        maze.connect(-1, 0, MazeWalls.SOUTH);
+
+        assertEquals(maze.numWalls(), standingWalls(maze));
+        assertFalse(maze.isConnected(0, 0, MazeWalls.NORTH));
+        assertFalse(maze.isConnected(0, 0, MazeWalls.WEST));
+        assertFalse(maze.isConnected(2, 3, MazeWalls.SOUTH));
+    }
+
+    // the words are what is sent in tuples, a maze rebuilt from them is the same maze
+    @Test
+    public void rebuiltFromWords() {
+        MazeWalls maze = new MazeWalls(5, 7);
+        maze.connect(0, 0, MazeWalls.EAST);
+        maze.connect(4, 6, MazeWalls.NORTH);
+        maze.removeWall(maze.numWalls() - 1);
+
+        MazeWalls copy = new MazeWalls(5, 7, maze.getWords().clone());
+
+        for (int wall = 0; wall < maze.numWalls(); wall++)
+            assertEquals(maze.isWall(wall), copy.isWall(wall), "wall " + wall);
+
+        assertTrue(copy.isConnected(0, 1, MazeWalls.WEST));
+        assertTrue(copy.isConnected(3, 6, MazeWalls.SOUTH));
+    }
+
+    private static int standingWalls(MazeWalls maze) {
+        int walls = 0;
+
+        for (int wall = 0; wall < maze.numWalls(); wall++) {
+            if (maze.isWall(wall))
+                walls++;
+        }
+
+        return walls;
+    }
+}
@@ -0,0 +1,62 @@
+package listeners;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ListenerRuntimeTest {
+
+    @Test
+    public void stopInterruptsAndJoins() throws InterruptedException {
+        ListenerRuntime listeners = new ListenerRuntime("test");
+        CountDownLatch started = new CountDownLatch(1), finished = new CountDownLatch(1);
+
+        listeners.start(() -> {
+            try {
+                started.countDown();
+                new LinkedBlockingQueue<>().take();
+            } catch (InterruptedException ignored) {
+                finished.countDown();
+            }
+        }, "listener");
+
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        listeners.stop();
+
+        assertEquals(0, finished.getCount());
+        assertTrue(listeners.isStopped());
+        assertThrows(IllegalStateException.class, () -> listeners.start(() -> {}, "late listener"));
+    }
+
+    // a get pending on a remote space outlives the interrupt, it is completed by the listener's wake up
+    @Test
+    public void wakeUpCompletesAPendingGet() throws InterruptedException {
+        ListenerRuntime listeners = new ListenerRuntime("test");
+        LinkedBlockingQueue<Integer> remote = new LinkedBlockingQueue<>();
+        AtomicReference<Integer> taken = new AtomicReference<>();
+        CountDownLatch started = new CountDownLatch(1);
+
+        listeners.start(() -> {
+            started.countDown();
+
+            while (taken.get() == null) {
+                try {
+                    taken.set(remote.take());
+                } catch (InterruptedException ignored) {
+                    // the server keeps waiting
+                }
+            }
+        }, "listener", () -> remote.put(-1));
+
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        listeners.stop();
+
+        assertEquals(-1, taken.get());
+        assertTrue(remote.isEmpty());
+    }
+}
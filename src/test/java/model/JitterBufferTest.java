@@ -0,0 +1,104 @@
+package model;
+
+import application.Grid;
+import datatypes.MazeWalls;
+import org.junit.jupiter.api.Test;
+import physics.Simulation;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JitterBufferTest {
+    private static final int FORWARDS = 1; // see Simulation.applyKeys
+    private static final double STEP = Simulation.MOVEMENT_SPEED / Simulation.DEFAULT_TICK_RATE; // px per tick
+
+    // the tractor is where it was at the render time, the newest position sent before it
+    @Test
+    public void newestPositionBeforeRenderTime() {
+        Simulation simulation = openMaze();
+        JitterBuffer buffer = new JitterBuffer();
+        assertTrue(buffer.isEmpty());
+
+        for (int i = 0; i < 5; i++)
+            buffer.add(100 * i, 100 * i + 30, 100 + i, 200, 0, 0);
+
+        // 30 ms from sending to receiving, so the position sent at 200 is shown from 230 on
+        buffer.sample(250, false, simulation, 0);
+        assertEquals(102, simulation.world.tractorX[0]);
+
+        buffer.sample(429, false, simulation, 0);
+        assertEquals(103, simulation.world.tractorX[0]);
+
+        buffer.sample(430, false, simulation, 0);
+        assertEquals(104, simulation.world.tractorX[0]);
+
+        // before every position, the oldest is shown
+        buffer.sample(-50, false, simulation, 0);
+        assertEquals(100, simulation.world.tractorX[0]);
+    }
+
+    // send times are moved to the local clock by the fastest delivery seen, late positions don't move them
+    @Test
+    public void clockOffsetFromFastestDelivery() {
+        Simulation simulation = openMaze();
+        JitterBuffer buffer = new JitterBuffer();
+        buffer.add(0, 1000, 100, 200, 0, 0);
+        buffer.add(100, 1150, 101, 200, 0, 0); // 50 ms late
+
+        buffer.sample(1099, false, simulation, 0);
+        assertEquals(100, simulation.world.tractorX[0]);
+
+        buffer.add(200, 1180, 102, 200, 0, 0); // 20 ms faster than the first, everything is 20 ms earlier
+        buffer.sample(1080, false, simulation, 0);
+        assertEquals(101, simulation.world.tractorX[0]);
+        buffer.sample(1180, false, simulation, 0);
+        assertEquals(102, simulation.world.tractorX[0]);
+    }
+
+    @Test
+    public void outdatedPositionsAreDropped() {
+        Simulation simulation = openMaze();
+        JitterBuffer buffer = new JitterBuffer();
+        buffer.add(100, 100, 101, 200, 0, 0);
+        buffer.add(50, 100, 150, 200, 0, 0); // sent before the newest one
+
+        buffer.sample(100, false, simulation, 0);
+        assertEquals(101, simulation.world.tractorX[0]);
+        buffer.sample(0, false, simulation, 0);
+        assertEquals(101, simulation.world.tractorX[0]);
+    }
+
+    // between positions the tractor keeps moving by the keys sent with the last one, but not for more than MAX_RECKONING
+    @Test
+    public void deadReckoning() {
+        Simulation simulation = openMaze();
+        JitterBuffer buffer = new JitterBuffer();
+        buffer.add(0, 0, 100, 200, 0, FORWARDS);
+
+        buffer.sample(100, true, simulation, 0);
+        assertEquals(100 + 6 * STEP, simulation.world.tractorX[0], 1e-9);
+
+        buffer.sample(150, true, simulation, 0); // only the ticks not yet moved
+        assertEquals(100 + 9 * STEP, simulation.world.tractorX[0], 1e-9);
+
+        buffer.sample(10_000, true, simulation, 0);
+        int ticks = JitterBuffer.MAX_RECKONING * Simulation.DEFAULT_TICK_RATE / 1000;
+        assertEquals(100 + ticks * STEP, simulation.world.tractorX[0], 1e-9);
+
+        // a new position is moved from again
+        buffer.add(1000, 1000, 50, 200, 0, FORWARDS);
+        buffer.sample(1100, true, simulation, 0);
+        assertEquals(50 + 6 * STEP, simulation.world.tractorX[0], 1e-9);
+    }
+
+    // a 450x450 maze without inner walls, the tractor in slot 0 doesn't hit anything away from the border
+    private static Simulation openMaze() {
+        MazeWalls maze = new MazeWalls(9, 9);
+
+        for (int wall = 0; wall < maze.numWalls(); wall++)
+            maze.removeWall(wall);
+
+        return new Simulation(new World(List.of(1)), new Grid(450, 450, maze), Simulation.DEFAULT_TICK_RATE);
+    }
+}
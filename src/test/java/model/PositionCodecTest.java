@@ -0,0 +1,132 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PositionCodecTest {
+    private static final double POSITION_ERROR = 1 / 32.0; // px, half a quantization step
+    private static final double ROTATION_ERROR = 360 / 8192.0; // degrees
+
+    @Test
+    public void roundTrip() {
+        Random random = new Random(42);
+        PositionCodec encoder = new PositionCodec(), decoder = new PositionCodec();
+        long startTime = 1_000_000, time = startTime;
+        double x = 200, y = 200, rotation = 90;
+
+        for (int i = 0; i < 1000; i++) {
+            time += i == 0 ? 0 : random.nextInt(100);
+            x += random.nextGaussian() * 5;
+            y += random.nextGaussian() * 5;
+            rotation += random.nextGaussian() * 10;
+            int keys = random.nextInt(16);
+
+            decoder.decode(encoder.encode(time, x, y, rotation, keys));
+
+            assertEquals(time - startTime, decoder.time());
+            assertEquals(x, decoder.x(), POSITION_ERROR);
+            assertEquals(y, decoder.y(), POSITION_ERROR);
+            assertEquals(rotation, decoder.rotation(), ROTATION_ERROR);
+            assertEquals(keys, decoder.keys());
+            assertEquals(encoder.updates(), decoder.updates());
+        }
+    }
+
+    // deltas in both directions across every varint length, and values at the ends of their range
+    @Test
+    public void zigzagEdges() {
+        PositionCodec encoder = new PositionCodec(), decoder = new PositionCodec();
+        double[] positions = {0, -1 / 16.0, 1 / 16.0, -4, 4, -8, 8, -1024, 1024, -100_000, 100_000, -Integer.MAX_VALUE / 16.0, Integer.MAX_VALUE / 16.0, 0};
+        long[] times = {0, 1, 63, 64, 8191, 8192, Integer.MAX_VALUE, 1L << 40, Long.MAX_VALUE / 2};
+
+        for (int i = 0; i < positions.length; i++) {
+            long time = times[Math.min(i, times.length - 1)];
+            decoder.decode(encoder.encode(time, positions[i], -positions[i], -positions[i], 15));
+
+            assertEquals(time, decoder.time());
+            assertEquals(positions[i], decoder.x(), POSITION_ERROR);
+            assertEquals(-positions[i], decoder.y(), POSITION_ERROR);
+            assertEquals(-positions[i], decoder.rotation(), ROTATION_ERROR);
+            assertEquals(15, decoder.keys());
+        }
+    }
+
+    @Test
+    public void unchangedFieldsAreLeftOut() {
+        PositionCodec encoder = new PositionCodec();
+        encoder.encode(0, 10, 10, 0, 1);
+
+        assertEquals(2, encoder.encode(1, 10, 10, 0, 1).length); // header and time
+        assertEquals(3, encoder.encode(2, 11, 10, 0, 1).length);
+    }
+
+    // rotations are not wrapped, so an interpolation from 359 to 361 degrees goes the short way
+    @Test
+    public void rotationIsNotWrapped() {
+        PositionCodec encoder = new PositionCodec(), decoder = new PositionCodec();
+        decoder.decode(encoder.encode(0, 0, 0, 359, 0));
+        decoder.decode(encoder.encode(1, 0, 0, 361, 0));
+
+        assertEquals(361, decoder.rotation(), ROTATION_ERROR);
+    }
+
+    @Test
+    public void keyFrames() {
+        PositionCodec encoder = new PositionCodec();
+        byte[][] updates = new byte[2 * PositionCodec.KEY_FRAME_INTERVAL + 1][];
+
+        for (int i = 0; i < updates.length; i++)
+            updates[i] = encoder.encode(10 * i, i, 2 * i, 3 * i, i % 16);
+
+        for (int i = 0; i < updates.length; i++)
+            assertEquals(i % PositionCodec.KEY_FRAME_INTERVAL == 0, (updates[i][0] & 1) == 1, "update " + i);
+
+        // a receiver that missed updates is back in step at the next key frame
+        PositionCodec decoder = new PositionCodec();
+        decoder.decode(updates[0]);
+        decoder.decode(updates[5]);
+        decoder.decode(updates[PositionCodec.KEY_FRAME_INTERVAL]);
+
+        int i = PositionCodec.KEY_FRAME_INTERVAL;
+        assertEquals(10 * i, decoder.time());
+        assertEquals(i, decoder.x(), POSITION_ERROR);
+        assertEquals(2 * i, decoder.y(), POSITION_ERROR);
+        assertEquals(3 * i, decoder.rotation(), ROTATION_ERROR);
+        assertEquals(i % 16, decoder.keys());
+    }
+
+    @Test
+    public void timesAreSinceTheFirstUpdate() {
+        PositionCodec encoder = new PositionCodec(), decoder = new PositionCodec();
+        decoder.decode(encoder.encode(1_700_000_000_000L, 0, 0, 0, 0));
+        assertEquals(0, decoder.time());
+
+        decoder.decode(encoder.encode(1_700_000_000_250L, 0, 0, 0, 0));
+        assertEquals(250, decoder.time());
+    }
+
+    // a receiver that fell behind the updates the sender keeps resumes at the oldest key frame left, see MovementListener
+    @Test
+    public void resumeAtAKeyFrame() {
+        PositionCodec encoder = new PositionCodec(), decoder = new PositionCodec();
+        byte[][] updates = new byte[3 * PositionCodec.KEY_FRAME_INTERVAL][];
+
+        for (int i = 0; i < updates.length; i++) {
+            assertEquals(i / PositionCodec.KEY_FRAME_INTERVAL * PositionCodec.KEY_FRAME_INTERVAL, PositionCodec.keyFrame(i));
+            updates[i] = encoder.encode(10 * i, i, 2 * i, 3 * i, i % 16);
+        }
+
+        decoder.decode(updates[0]);
+        decoder.resume(2 * PositionCodec.KEY_FRAME_INTERVAL);
+
+        for (int i = 2 * PositionCodec.KEY_FRAME_INTERVAL; i < updates.length; i++) {
+            assertEquals(i, decoder.updates());
+            decoder.decode(updates[i]);
+            assertEquals(i, decoder.x(), POSITION_ERROR);
+            assertEquals(10 * i, decoder.time());
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package physics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CollisionTest {
+
+    @Test
+    public void boxAndRect() {
+        // a 20x10 box centered at (10, 5) against a 2 px wall
+        assertTrue(Collision.boxIntersectsRect(10, 5, 10, 5, 0, 19, -10, 2, 30));
+        assertFalse(Collision.boxIntersectsRect(10, 5, 10, 5, 0, 20, -10, 2, 30)); // touching only
+        assertFalse(Collision.boxIntersectsRect(10, 5, 10, 5, 0, 21, -10, 2, 30));
+    }
+
+    // turned by 90 degrees the box is 10 wide, by 45 degrees its corners reach out to about 10.6 px
+    @Test
+    public void rotatedBoxAndRect() {
+        assertFalse(Collision.boxIntersectsRect(10, 5, 10, 5, 90, 16, -10, 2, 30));
+        assertTrue(Collision.boxIntersectsRect(10, 5, 10, 5, 90, 14, -10, 2, 30));
+        assertTrue(Collision.boxIntersectsRect(10, 5, 10, 5, 45, 20.5, -10, 2, 30));
+        assertFalse(Collision.boxIntersectsRect(10, 5, 10, 5, 45, 20.7, -10, 2, 30));
+    }
+
+    // a box turned by 45 degrees is only separated from a rectangle off its corner by one of its own axes
+    @Test
+    public void separatedByBoxAxisOnly() {
+        double offset = 10 / Math.sqrt(2) + 0.5; // bounds of the box overlap the rectangle, the box does not
+        assertFalse(Collision.boxIntersectsRect(0, 0, 5, 5, 45, offset - 1, offset - 1, 1, 1));
+        assertTrue(Collision.boxIntersectsRect(0, 0, 5, 5, 0, 4, 4, 2, 2));
+    }
+
+    @Test
+    public void circleAndRect() {
+        assertTrue(Collision.circleIntersectsRect(0, 0, 4, 3, -1, 2, 2));
+        assertFalse(Collision.circleIntersectsRect(0, 0, 4, 4, -1, 2, 2)); // touching only
+        assertFalse(Collision.circleIntersectsRect(0, 0, 4, 3, 3, 2, 2)); // off the corner, inside the bounds
+    }
+
+    @Test
+    public void circleAndRotatedBox() {
+        // a 20x10 box centered at the origin, the circle is 7 px below the center
+        assertFalse(Collision.circleIntersectsBox(0, 7, 1, 0, 0, 10, 5, 0));
+        assertTrue(Collision.circleIntersectsBox(0, 7, 1, 0, 0, 10, 5, 90));
+    }
+}
@@ -0,0 +1,102 @@
+package physics;
+
+import application.Grid;
+import datatypes.MazeWalls;
+import model.World;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DeadReckoningTest {
+    private static final int TICK_RATE = Simulation.DEFAULT_TICK_RATE;
+    private static final int FORWARDS = 1, CLOCKWISE = 8; // see Simulation.applyKeys
+
+    @Test
+    public void sendOnKeyChange() {
+        Simulation simulation = openMaze();
+        DeadReckoning deadReckoning = new DeadReckoning(simulation.grid, TICK_RATE);
+        World world = simulation.world;
+
+        assertTrue(deadReckoning.tick(world, 0, 0)); // nothing sent yet
+        deadReckoning.sent(world, 0);
+
+        // a tractor standing still is never sent again
+        for (int i = 0; i < 100; i++)
+            assertFalse(deadReckoning.tick(world, 0, 0));
+
+        world.keys[0] = CLOCKWISE;
+        assertTrue(deadReckoning.tick(world, 0, 0));
+    }
+
+    // a tractor moving as the receivers reckon it is only sent every HEARTBEAT ms
+    @Test
+    public void heartbeatWhileMoving() {
+        Simulation simulation = openMaze();
+        DeadReckoning deadReckoning = new DeadReckoning(simulation.grid, TICK_RATE);
+        World world = simulation.world;
+        int heartbeatTicks = DeadReckoning.HEARTBEAT * TICK_RATE / 1000;
+
+        world.keys[0] = FORWARDS | CLOCKWISE;
+        deadReckoning.sent(world, 0);
+
+        for (int i = 1; i < heartbeatTicks; i++) {
+            simulation.applyKeys(0, world.keys[0]);
+            assertFalse(deadReckoning.tick(world, 0, 0), "tick " + i);
+        }
+
+        simulation.applyKeys(0, world.keys[0]);
+        assertTrue(deadReckoning.tick(world, 0, 0));
+    }
+
+    // a tractor that drifted from where the receivers reckon it is sent
+    @Test
+    public void sendOnDrift() {
+        Simulation simulation = openMaze();
+        DeadReckoning deadReckoning = new DeadReckoning(simulation.grid, TICK_RATE);
+        World world = simulation.world;
+        deadReckoning.sent(world, 0);
+
+        world.tractorX[0] += DeadReckoning.POSITION_THRESHOLD;
+        assertFalse(deadReckoning.tick(world, 0, 0));
+        world.tractorX[0] += 0.5;
+        assertTrue(deadReckoning.tick(world, 0, 0));
+
+        deadReckoning.sent(world, 0);
+        world.tractorRotation[0] += DeadReckoning.ROTATION_THRESHOLD + 1;
+        assertTrue(deadReckoning.tick(world, 0, 0));
+    }
+
+    // a growing drift is judged as it will be when the update arrives, half a round trip later
+    @Test
+    public void driftGrowsOverTheRoundTrip() {
+        Simulation simulation = openMaze();
+        DeadReckoning deadReckoning = new DeadReckoning(simulation.grid, TICK_RATE);
+        DeadReckoning lagged = new DeadReckoning(simulation.grid, TICK_RATE);
+        World world = simulation.world;
+        deadReckoning.sent(world, 0);
+        lagged.sent(world, 0);
+
+        world.tractorY[0] += 1; // 1 px per tick
+        assertFalse(deadReckoning.tick(world, 0, 0));
+        assertTrue(lagged.tick(world, 0, 4));
+
+        world.tractorY[0] += 1;
+        assertFalse(deadReckoning.tick(world, 0, 0));
+        world.tractorY[0] += 1;
+        assertTrue(deadReckoning.tick(world, 0, 0));
+    }
+
+    // a 450x450 maze without inner walls with the tractor in slot 0 at (150, 200), away from the border
+    private static Simulation openMaze() {
+        MazeWalls maze = new MazeWalls(9, 9);
+
+        for (int wall = 0; wall < maze.numWalls(); wall++)
+            maze.removeWall(wall);
+
+        Simulation simulation = new Simulation(new World(List.of(1)), new Grid(450, 450, maze), TICK_RATE);
+        simulation.world.setTractor(0, 150, 200, 0);
+        return simulation;
+    }
+}
@@ -0,0 +1,79 @@
+package physics;
+
+import model.World;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LagCompensationTest {
+    private static final int TICK_RATE = 60;
+    private static final int MAX_REWIND_TICKS = LagCompensation.MAX_REWIND * TICK_RATE / 1000;
+
+    // a shooter who sees the world late hits the tractors where they were then
+    @Test
+    public void rewindByViewLag() {
+        World world = new World(List.of(1, 2, 3));
+        LagCompensation lagCompensation = new LagCompensation(world, TICK_RATE, -1, 0);
+        record(world, lagCompensation, 10);
+
+        lagCompensation.setViewLag(0, 4);
+        assertEquals(4, lagCompensation.rewind(0, 1));
+        assertEquals(5, lagCompensation.x(1, 4)); // recorded at tick 5 of 0..9
+        assertEquals(205, lagCompensation.y(2, 4));
+        assertEquals(9, lagCompensation.x(1, 0));
+        assertEquals(0, lagCompensation.rewind(1, 0));
+    }
+
+    @Test
+    public void neverOwnShotsOrNoShooter() {
+        World world = new World(List.of(1, 2));
+        LagCompensation lagCompensation = new LagCompensation(world, TICK_RATE, 0, 100);
+        record(world, lagCompensation, 10);
+        lagCompensation.setViewLag(1, 5);
+
+        assertEquals(0, lagCompensation.rewind(1, 1));
+        assertEquals(0, lagCompensation.rewind(-1, 0));
+    }
+
+    // between peers the host's own tractor is rewound by the interpolation delay every player sees it with
+    @Test
+    public void hostTractor() {
+        World world = new World(List.of(1, 2, 3));
+        LagCompensation lagCompensation = new LagCompensation(world, TICK_RATE, 0, 100);
+        record(world, lagCompensation, 20);
+
+        assertEquals(6, lagCompensation.rewind(1, 0));
+        assertEquals(0, lagCompensation.rewind(1, 2));
+        lagCompensation.setViewLag(1, 8);
+        assertEquals(8, lagCompensation.rewind(1, 0));
+    }
+
+    // never further back than MAX_REWIND, nor than has been recorded
+    @Test
+    public void rewindIsBounded() {
+        World world = new World(List.of(1, 2));
+        LagCompensation lagCompensation = new LagCompensation(world, TICK_RATE, -1, 0);
+        record(world, lagCompensation, 3);
+        lagCompensation.setViewLag(0, 1000);
+
+        assertEquals(2, lagCompensation.rewind(0, 1));
+        assertEquals(0, lagCompensation.x(1, 2));
+
+        record(world, lagCompensation, 100);
+        assertEquals(MAX_REWIND_TICKS, lagCompensation.rewind(0, 1));
+        assertEquals(99 - MAX_REWIND_TICKS, lagCompensation.x(1, MAX_REWIND_TICKS));
+        assertEquals(99 - MAX_REWIND_TICKS, lagCompensation.rotation(1, MAX_REWIND_TICKS));
+    }
+
+    // every tractor is at x = tick, y = 100 * slot + tick, rotation = tick in tick 0 .. ticks - 1
+    private static void record(World world, LagCompensation lagCompensation, int ticks) {
+        for (int tick = 0; tick < ticks; tick++) {
+            for (int slot = 0; slot < world.numTractors; slot++)
+                world.setTractor(slot, tick, 100 * slot + tick, tick);
+
+            lagCompensation.record();
+        }
+    }
+}
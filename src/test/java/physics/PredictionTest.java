@@ -0,0 +1,89 @@
+package physics;
+
+import application.Grid;
+import datatypes.MazeWalls;
+import model.Snapshot;
+import model.World;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PredictionTest {
+    private static final int FORWARDS = 1, CLOCKWISE = 8; // see Simulation.applyKeys
+    private static final double STEP = Simulation.MOVEMENT_SPEED / Simulation.DEFAULT_TICK_RATE; // px per tick
+
+    // a snapshot agreeing with the prediction changes nothing, the ticks after its input tick are replayed
+    @Test
+    public void agreeingSnapshot() {
+        Simulation client = openMaze(), host = openMaze();
+        Prediction prediction = new Prediction(client);
+        int[] keys = {FORWARDS, FORWARDS, FORWARDS | CLOCKWISE, CLOCKWISE, FORWARDS, 0, FORWARDS, FORWARDS};
+
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(i + 1, prediction.predict(0, keys[i]));
+            assertEquals(keys[i], client.world.keys[0]);
+
+            if (i < 4)
+                host.applyKeys(0, keys[i]);
+        }
+
+        double x = client.world.tractorX[0], y = client.world.tractorY[0], rotation = client.world.tractorRotation[0];
+
+        assertEquals(3, prediction.reconcile(snapshot(host.world, 4), 0));
+        assertEquals(x, client.world.tractorX[0], 1e-9);
+        assertEquals(y, client.world.tractorY[0], 1e-9);
+        assertEquals(rotation, client.world.tractorRotation[0], 1e-9);
+    }
+
+    // the host had the tractor elsewhere, the prediction is moved by the same amount
+    @Test
+    public void correction() {
+        Simulation client = openMaze();
+        Prediction prediction = new Prediction(client);
+
+        for (int i = 0; i < 10; i++)
+            prediction.predict(0, FORWARDS);
+
+        World host = new World(List.of(1));
+        host.setTractor(0, 150 + 6 * STEP, 200, 0);
+
+        assertEquals(3, prediction.reconcile(snapshot(host, 6), 0));
+        assertEquals(150 + 10 * STEP, client.world.tractorX[0], 1e-9);
+        assertEquals(200, client.world.tractorY[0], 1e-9);
+    }
+
+    // no more ticks are replayed than the key history holds
+    @Test
+    public void replayIsBounded() {
+        Simulation client = openMaze();
+        Prediction prediction = new Prediction(client);
+
+        for (int i = 0; i < 1000; i++)
+            prediction.predict(0, i < 500 ? 0 : CLOCKWISE);
+
+        World host = new World(List.of(1));
+        host.setTractor(0, 225, 225, 0);
+        prediction.reconcile(snapshot(host, 0), 0);
+
+        assertEquals(256 * Simulation.ROTATION_SPEED / Simulation.DEFAULT_TICK_RATE, client.world.tractorRotation[0], 1e-6);
+    }
+
+    private static Snapshot snapshot(World world, int inputTick) {
+        world.inputTicks[0] = inputTick;
+        return Snapshot.capture(world, inputTick + 1);
+    }
+
+    // a 450x450 maze without inner walls with the tractor in slot 0 at (150, 200), away from the border
+    private static Simulation openMaze() {
+        MazeWalls maze = new MazeWalls(9, 9);
+
+        for (int wall = 0; wall < maze.numWalls(); wall++)
+            maze.removeWall(wall);
+
+        Simulation simulation = new Simulation(new World(List.of(1)), new Grid(450, 450, maze), Simulation.DEFAULT_TICK_RATE);
+        simulation.world.setTractor(0, 150, 200, 0);
+        return simulation;
+    }
+}
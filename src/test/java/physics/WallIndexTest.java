@@ -0,0 +1,74 @@
+package physics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WallIndexTest {
+    private static final double WIDTH = 450, HEIGHT = 450;
+
+    // the index only looks at the cells around a shape, it must find the same walls as checking every wall
+    @Test
+    public void sameAsCheckingEveryWall() {
+        Random random = new Random(42);
+        double[] walls = randomWalls(random, 60);
+        WallIndex index = new WallIndex(walls, 9, 9, WIDTH, HEIGHT);
+        int hits = 0;
+
+        for (int i = 0; i < 10_000; i++) {
+            double x = random.nextDouble() * (WIDTH + 40) - 20, y = random.nextDouble() * (HEIGHT + 40) - 20;
+            double rotation = random.nextDouble() * 360, radius = 1 + random.nextDouble() * 10;
+            boolean box = false, circle = false;
+
+            for (int j = 0; j < walls.length; j += 4) {
+                box |= Collision.boxIntersectsRect(x, y, 10, 5, rotation, walls[j], walls[j + 1], walls[j + 2], walls[j + 3]);
+                circle |= Collision.circleIntersectsRect(x, y, radius, walls[j], walls[j + 1], walls[j + 2], walls[j + 3]);
+            }
+
+            assertEquals(box, index.isBoxCollision(x, y, 10, 5, rotation), "box at " + x + ", " + y);
+            assertEquals(circle, index.isCircleCollision(x, y, radius), "circle at " + x + ", " + y);
+
+            if (box)
+                hits++;
+        }
+
+        assertTrue(hits > 0);
+    }
+
+    // walls at the border and shapes partly outside the maze are clamped to the border cells
+    @Test
+    public void outerWalls() {
+        double[] walls = {0, -2, WIDTH, 2, -2, 0, 2, HEIGHT, 0, HEIGHT, WIDTH, 2, WIDTH, 0, 2, HEIGHT};
+        WallIndex index = new WallIndex(walls, 9, 9, WIDTH, HEIGHT);
+
+        assertTrue(index.isCircleCollision(-5, -5, 8));
+        assertTrue(index.isCircleCollision(WIDTH + 1, HEIGHT / 2, 2));
+        assertTrue(index.isBoxCollision(WIDTH / 2, HEIGHT - 3, 10, 5, 0));
+        assertFalse(index.isBoxCollision(WIDTH / 2, HEIGHT / 2, 10, 5, 45));
+        assertFalse(index.isCircleCollision(WIDTH / 2, 3, 2));
+    }
+
+    @Test
+    public void noWalls() {
+        WallIndex index = new WallIndex(new double[0], 9, 9, WIDTH, HEIGHT);
+
+        assertFalse(index.isBoxCollision(0, 0, 10, 5, 30));
+        assertFalse(index.isCircleCollision(WIDTH, HEIGHT, 1000));
+    }
+
+    private static double[] randomWalls(Random random, int count) {
+        double[] walls = new double[4 * count];
+
+        for (int i = 0; i < walls.length; i += 4) {
+            boolean horizontal = random.nextBoolean();
+            walls[i] = random.nextDouble() * WIDTH;
+            walls[i + 1] = random.nextDouble() * HEIGHT;
+            walls[i + 2] = horizontal ? 20 + random.nextDouble() * 80 : 2;
+            walls[i + 3] = horizontal ? 2 : 20 + random.nextDouble() * 80;
+        }
+
+        return walls;
+    }
+}